@@ -0,0 +1,129 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.events.BookChangedEvent;
+import com.example.bookapp.repositories.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Book totals per user, broken down by genre, so paginated listings do not run a COUNT for every
+ * page. A user's counts are loaded with one grouped query on first use and then adjusted from
+ * {@link BookChangedEvent}s once the writing transaction commits.
+ * <p>
+ * A load that finishes after a write was published may already include it, so applying the event's
+ * delta could count the write twice. Each entry is stamped with the time its query returned, each
+ * event with the time it was published, and an event that is not older than the entry drops it
+ * instead. A load that overlaps that invalidation is not cached either (see {@link BoundedCache}).
+ */
+@Component
+public class BookCountCache {
+
+    private final BookRepository bookRepository;
+    private final BoundedCache<Long, UserCounts> cache;
+
+    public BookCountCache(BookRepository bookRepository,
+                          @Value("${books.count-cache.max-size:10000}") int maxSize,
+                          @Value("${books.count-cache.ttl:10m}") Duration ttl) {
+        this.bookRepository = bookRepository;
+        this.cache = new BoundedCache<>(maxSize, ttl);
+    }
+
+    public long countForUser(Long userId) {
+        return Math.max(0, counts(userId).total.get());
+    }
+
+    public long countForGenre(Long userId, Long genreId) {
+        AtomicLong count = counts(userId).byGenre.get(genreId);
+        return count == null ? 0 : Math.max(0, count.get());
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        long publishedAt = System.nanoTime();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event, publishedAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(event, publishedAt);
+            }
+        });
+    }
+
+    private void apply(BookChangedEvent event, long publishedAt) {
+        UserCounts counts = cache.get(event.userId());
+        if (counts == null) return;
+        if (counts.loadedAt - publishedAt >= 0) {
+            // Loaded while the write was committing: it may or may not be counted already
+            cache.invalidate(event.userId());
+            return;
+        }
+
+        switch (event.type()) {
+            case CREATED -> counts.add(event.genreId(), 1);
+            case DELETED -> counts.add(event.previousGenreId(), -1);
+            case UPDATED -> {
+                if (!Objects.equals(event.previousGenreId(), event.genreId())) {
+                    counts.move(event.previousGenreId(), event.genreId());
+                }
+            }
+        }
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public BoundedCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private UserCounts counts(Long userId) {
+        return cache.getOrLoad(userId, id -> {
+            List<Object[]> rows = bookRepository.countByGenreForUser(id);
+            return UserCounts.of(rows, System.nanoTime());
+        });
+    }
+
+    private static final class UserCounts {
+
+        private final AtomicLong total = new AtomicLong();
+        private final Map<Long, AtomicLong> byGenre = new ConcurrentHashMap<>();
+        // System.nanoTime() once the query returned
+        private final long loadedAt;
+
+        private UserCounts(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        static UserCounts of(List<Object[]> rows, long loadedAt) {
+            UserCounts counts = new UserCounts(loadedAt);
+            for (Object[] row : rows) {
+                counts.add((Long) row[0], ((Number) row[1]).longValue());
+            }
+            return counts;
+        }
+
+        void add(Long genreId, long delta) {
+            total.addAndGet(delta);
+            byGenre.computeIfAbsent(genreId, id -> new AtomicLong()).addAndGet(delta);
+        }
+
+        void move(Long fromGenreId, Long toGenreId) {
+            byGenre.computeIfAbsent(fromGenreId, id -> new AtomicLong()).decrementAndGet();
+            byGenre.computeIfAbsent(toGenreId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
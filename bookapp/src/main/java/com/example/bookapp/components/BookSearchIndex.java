@@ -0,0 +1,265 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.events.BookChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Embedded Lucene index over book titles and synopses, kept in a local directory.
+ * <p>
+ * Each book is one document keyed by user and ISBN. {@link BookChangedEvent}s are applied once the
+ * writing transaction commits, and searchers reopen lazily on the next search, so a bulk import
+ * does not reopen the index once per row. Changes are committed to disk on a fixed interval; the
+ * index is rebuilt from the {@code books} table at startup when it is empty, and can be rebuilt on
+ * demand for one user or for everyone.
+ * <p>
+ * The index only sees the events of its own node, so it supports a single-node deployment only: with
+ * several instances each one misses the others' writes until it is rebuilt. Scaling out needs a shared
+ * feed of book changes (or a shared search engine) first.
+ */
+@Slf4j
+@Component
+public class BookSearchIndex implements DisposableBean {
+
+    static final String ID = "id";
+    static final String USER = "user";
+    static final String ISBN = "isbn";
+    static final String TITLE = "title";
+    static final String SYNOPSIS = "synopsis";
+
+    // A word in the title counts for more than one in the synopsis, and a whole word more than a prefix
+    private static final float TITLE_BOOST = 3f;
+    private static final float PREFIX_BOOST = 0.5f;
+
+    // Terms beyond this are ignored; longer queries only add cost, not precision
+    private static final int MAX_QUERY_TERMS = 16;
+
+    private static final String REBUILD_SQL = "SELECT user_id, isbn, title, synopsis FROM books";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean rebuildOnStartup;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final AtomicBoolean stale = new AtomicBoolean();
+
+    public BookSearchIndex(DataSource dataSource,
+                           @Value("${books.search.index-dir:data/search-index}") String indexDir,
+                           @Value("${books.search.rebuild-on-startup:false}") boolean rebuildOnStartup,
+                           @Value("${books.search.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.rebuildOnStartup = rebuildOnStartup;
+        try {
+            // A blank directory keeps the index in memory, which is enough for tests
+            this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the search index at " + indexDir, e);
+        }
+    }
+
+    public record Hits(long totalHits, List<String> isbns) {
+    }
+
+    /**
+     * Books of the user matching every word of the query, best first. Each word matches whole words or
+     * word prefixes in the title or the synopsis.
+     */
+    public Hits search(Long userId, String text, int limit) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) return new Hits(0, List.of());
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(USER, userId.toString())), Occur.FILTER);
+        for (String term : terms) {
+            query.add(termQuery(term), Occur.MUST);
+        }
+
+        try {
+            if (stale.getAndSet(false)) {
+                searcherManager.maybeRefreshBlocking();
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query.build(), limit);
+                List<String> isbns = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    isbns.add(searcher.storedFields().document(hit.doc).get(ISBN));
+                }
+                return new Hits(top.totalHits.value, isbns);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        try {
+            if (event.type() == BookChangedEvent.Type.DELETED) {
+                writer.deleteDocuments(new Term(ID, id(event.userId(), event.isbn())));
+            } else {
+                index(event.userId(), event.isbn(), event.title(), event.synopsis());
+            }
+            stale.set(true);
+        } catch (IOException e) {
+            // The book itself is saved; a rebuild brings the index back in line
+            log.warn("Could not index book {} of user {}: {}", event.isbn(), event.userId(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (rebuildOnStartup || writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reindexes every book from the database. Changes committed while the rebuild runs are applied on
+     * top of it, since documents are replaced by id rather than appended.
+     */
+    public void rebuild() {
+        try {
+            writer.deleteAll();
+            long count = reindex(REBUILD_SQL);
+            log.info("Search index rebuilt with {} books", count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void rebuild(Long userId) {
+        try {
+            writer.deleteDocuments(new Term(USER, userId.toString()));
+            reindex(REBUILD_SQL + " WHERE user_id = ?", userId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${books.search.commit-interval:PT30S}")
+    public void commit() {
+        if (!writer.hasUncommittedChanges()) return;
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.warn("Could not commit the search index: {}", e.getMessage());
+        }
+    }
+
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private long reindex(String sql, Object... args) throws IOException {
+        long[] count = {0};
+        try {
+            jdbcTemplate.query(sql, rs -> {
+                try {
+                    index(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.commit();
+        stale.set(true);
+        return count[0];
+    }
+
+    private void index(Long userId, String isbn, String title, String synopsis) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(ID, id(userId, isbn), Field.Store.NO));
+        document.add(new StringField(USER, userId.toString(), Field.Store.NO));
+        document.add(new StringField(ISBN, isbn, Field.Store.YES));
+        if (title != null) document.add(new TextField(TITLE, title, Field.Store.NO));
+        if (synopsis != null) document.add(new TextField(SYNOPSIS, synopsis, Field.Store.NO));
+        writer.updateDocument(new Term(ID, id(userId, isbn)), document);
+    }
+
+    private static Query termQuery(String term) {
+        return new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(TITLE, term)), TITLE_BOOST), Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(new Term(TITLE, term)), TITLE_BOOST * PREFIX_BOOST), Occur.SHOULD)
+                .add(new TermQuery(new Term(SYNOPSIS, term)), Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(new Term(SYNOPSIS, term)), PREFIX_BOOST), Occur.SHOULD)
+                .build();
+    }
+
+    private List<String> analyze(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        try (TokenStream tokens = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static String id(Long userId, String isbn) {
+        return userId + ":" + isbn;
+    }
+}
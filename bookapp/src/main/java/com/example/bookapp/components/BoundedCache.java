@@ -0,0 +1,155 @@
+package com.example.bookapp.components;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Small LRU cache with a maximum size and a time-to-live per entry. Loads happen outside the lock,
+ * so two threads missing the same key may both call the loader; the last one wins. A load that was
+ * running when any key was invalidated is returned but not cached, so it cannot put back a value read
+ * before the write that caused the invalidation.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    // Bumped by every invalidation; guarded by entries
+    private long invalidations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public BoundedCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be greater than 0");
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean evict = size() > BoundedCache.this.maxSize;
+                if (evict) evictions.increment();
+                return evict;
+            }
+        };
+    }
+
+    public V get(K key) {
+        long now = clock.millis();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) return value;
+
+        long seen;
+        synchronized (entries) {
+            seen = invalidations;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            Entry<V> entry = new Entry<>(value, clock.millis() + ttlMillis);
+            synchronized (entries) {
+                if (invalidations == seen) entries.put(key, entry);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, clock.millis() + ttlMillis);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+            invalidations++;
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            invalidations++;
+        }
+    }
+
+    /**
+     * Drops expired entries eagerly. Expired entries are otherwise only removed when they are read.
+     */
+    public void purgeExpired() {
+        long now = clock.millis();
+        synchronized (entries) {
+            Iterator<Entry<V>> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().expiresAt <= now) {
+                    iterator.remove();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    /**
+     * Publishes the counters with the standard Micrometer cache meter names, tagged with {@code cache}.
+     */
+    public void bindTo(MeterRegistry registry, String cacheName) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", cacheName).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", cacheName).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", cacheName).register(registry);
+        Gauge.builder("cache.size", this, BoundedCache::size)
+                .tag("cache", cacheName).register(registry);
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
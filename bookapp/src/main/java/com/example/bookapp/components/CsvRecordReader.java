@@ -0,0 +1,161 @@
+package com.example.bookapp.components;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double quotes around fields that contain commas,
+ * quotes or line breaks, and {@code ""} for a literal quote. Only the current record is held in memory,
+ * and no more of it than the field and record length limits allow.
+ */
+public class CsvRecordReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final int maxFieldLength;
+    private final int maxRecordLength;
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private long recordLine;
+    private long recordLength;
+    private String recordError;
+    private int pushedBack;
+    private boolean hasPushedBack;
+
+    public CsvRecordReader(Reader reader) {
+        this(reader, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    public CsvRecordReader(Reader reader, int maxFieldLength, int maxRecordLength) {
+        this.reader = reader;
+        this.maxFieldLength = maxFieldLength;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * @return the fields of the next non-empty record, or null at the end of the input
+     * @throws MalformedRecordException if the record is over a length limit or has an unterminated quote;
+     *                                  the record has then been consumed and the next call reads the one after
+     */
+    public List<String> next() throws IOException {
+        List<String> record = new ArrayList<>();
+        boolean quoted = false;
+        boolean afterQuote = false;
+        field.setLength(0);
+        recordLine = line;
+        recordLength = 0;
+        recordError = null;
+
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c == EOF) {
+                    throw new MalformedRecordException(recordLine, "Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int nextChar = read();
+                    if (nextChar == '"') {
+                        append('"');
+                    } else {
+                        unread(nextChar);
+                        quoted = false;
+                        afterQuote = true;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    append((char) c);
+                }
+                continue;
+            }
+
+            if (c == ',') {
+                if (recordError == null && ++recordLength > maxRecordLength) recordError = recordTooLong();
+                if (recordError == null) record.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '"' && field.isEmpty() && !afterQuote) {
+                quoted = true;
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    int nextChar = read();
+                    if (nextChar != '\n') unread(nextChar);
+                }
+                if (c != EOF) line++;
+
+                if (recordError != null) throw new MalformedRecordException(recordLine, recordError);
+                boolean blankLine = record.isEmpty() && field.isEmpty() && !afterQuote;
+                if (blankLine) {
+                    if (c == EOF) return null;
+                    recordLine = line;
+                    continue;
+                }
+                record.add(field.toString());
+                return record;
+            } else {
+                append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Line on which the record last returned by {@link #next()} starts.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Past a limit the rest of the record is still read, so the next call starts on a record boundary,
+    // but nothing more of it is kept
+    private void append(char c) {
+        if (recordError != null) return;
+        if (field.length() >= maxFieldLength) {
+            recordError = "Field longer than " + maxFieldLength + " characters on line " + recordLine;
+        } else if (++recordLength > maxRecordLength) {
+            recordError = recordTooLong();
+        }
+        if (recordError == null) field.append(c);
+    }
+
+    private String recordTooLong() {
+        return "Record longer than " + maxRecordLength + " characters starting on line " + recordLine;
+    }
+
+    private int read() throws IOException {
+        if (hasPushedBack) {
+            hasPushedBack = false;
+            return pushedBack;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+        hasPushedBack = true;
+    }
+
+    /**
+     * A record that cannot be returned. It has been read past, so the reader can carry on with the next one.
+     */
+    public static class MalformedRecordException extends IOException {
+
+        private final long line;
+
+        public MalformedRecordException(long line, String message) {
+            super(message);
+            this.line = line;
+        }
+
+        public long getLine() {
+            return line;
+        }
+    }
+}
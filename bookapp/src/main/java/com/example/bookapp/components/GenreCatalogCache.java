@@ -0,0 +1,90 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.dto.output.GenreResponseDTO;
+import com.example.bookapp.events.GenreChangedEvent;
+import com.example.bookapp.repositories.GenreRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Each user's genre list, as served by {@code GET /api/v1/genres/user/{userId}}, with an ETag and the
+ * upper-cased names for a first duplicate check. A catalog is loaded with one projection query and
+ * dropped once a {@link GenreChangedEvent} for its user commits; a load that overlaps that invalidation
+ * is not cached, so it cannot put back the list from before the change. The ETag is a digest of the
+ * content, so it is the same on every node and survives restarts.
+ * <p>
+ * Invalidation only reaches this node: other nodes serve their catalog, and its ETag, for up to
+ * {@code ttl} after a change. Nothing is rejected on the catalog's word alone, see
+ * {@link Catalog#containsName(String)}.
+ */
+@Component
+public class GenreCatalogCache {
+
+    private final GenreRepository genreRepository;
+    private final BoundedCache<Long, Catalog> cache;
+
+    public GenreCatalogCache(GenreRepository genreRepository,
+                             @Value("${genres.catalog-cache.max-size:10000}") int maxSize,
+                             @Value("${genres.catalog-cache.ttl:1m}") Duration ttl) {
+        this.genreRepository = genreRepository;
+        this.cache = new BoundedCache<>(maxSize, ttl);
+    }
+
+    public record Catalog(List<GenreResponseDTO> genres, String etag, Set<String> upperCaseNames) {
+
+        /**
+         * Whether the name may already exist. Java upper-casing is not SQL Server's collation (e.g. "ß"
+         * becomes "SS" here but stays as it is there), so a hit still has to be confirmed by the database.
+         */
+        public boolean containsName(String name) {
+            return upperCaseNames.contains(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public Catalog get(Long userId) {
+        return cache.getOrLoad(userId, id -> catalogOf(genreRepository.findResponsesByUserId(id)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGenreChanged(GenreChangedEvent event) {
+        cache.invalidate(event.userId());
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public BoundedCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private static Catalog catalogOf(List<GenreResponseDTO> genres) {
+        Set<String> names = new HashSet<>();
+        MessageDigest digest = sha256();
+        for (GenreResponseDTO genre : genres) {
+            names.add(genre.getName().toUpperCase(Locale.ROOT));
+            digest.update((genre.getId() + "\u0000" + genre.getName() + "\u0000").getBytes(StandardCharsets.UTF_8));
+        }
+        String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        return new Catalog(List.copyOf(genres), etag, Set.copyOf(names));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.events.BookChangedEvent;
+import com.example.bookapp.repositories.GenreStatsRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains {@code genre_stats} from {@link BookChangedEvent}s inside the writing transaction.
+ * <p>
+ * Events are not applied one by one: their deltas are summed per genre and written just before the
+ * transaction commits, one UPDATE per touched genre. A bulk import chunk therefore costs one
+ * statement per genre rather than one per row, and does not break JDBC batching with a flush per
+ * book. Genres are updated in id order so concurrent writers lock rows in the same order.
+ * <p>
+ * Every book write publishes its event inside its transaction; one published outside any transaction
+ * is rejected, since its counters could no longer commit or roll back with the write.
+ */
+@Component
+public class GenreStatsListener {
+
+    private static final String INSERT_EMPTY_SQL =
+            "INSERT INTO genre_stats (genre_id, user_id, book_count) VALUES (?, ?, 0)";
+
+    private final GenreStatsRepository genreStatsRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Key of the pending deltas bound to the current transaction
+    private final Object resourceKey = new Object();
+
+    public GenreStatsListener(GenreStatsRepository genreStatsRepository, DataSource dataSource) {
+        this.genreStatsRepository = genreStatsRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Book changes must be published inside the writing transaction");
+        }
+        collect(event, pendingDeltas());
+    }
+
+    private static void collect(BookChangedEvent event, Map<Long, Delta> deltas) {
+        switch (event.type()) {
+            case CREATED -> add(deltas, event.genreId(), event.userId(), 1);
+            case DELETED -> add(deltas, event.previousGenreId(), event.userId(), -1);
+            case UPDATED -> {
+                if (event.previousGenreId() != null && !event.previousGenreId().equals(event.genreId())) {
+                    add(deltas, event.previousGenreId(), event.userId(), -1);
+                    add(deltas, event.genreId(), event.userId(), 1);
+                }
+            }
+        }
+    }
+
+    private Map<Long, Delta> pendingDeltas() {
+        @SuppressWarnings("unchecked")
+        Map<Long, Delta> deltas = (Map<Long, Delta>) TransactionSynchronizationManager.getResource(resourceKey);
+        if (deltas != null) return deltas;
+
+        Map<Long, Delta> created = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(resourceKey, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // A REQUIRES_NEW transaction inside this one collects its own deltas
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(resourceKey);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(resourceKey, created);
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                apply(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+            }
+        });
+        return created;
+    }
+
+    private void apply(Map<Long, Delta> deltas) {
+        if (deltas.isEmpty()) return;
+
+        // The MAX(created_at) subquery must see the books written so far
+        genreStatsRepository.flush();
+        for (Map.Entry<Long, Delta> entry : deltas.entrySet()) {
+            Long genreId = entry.getKey();
+            long count = entry.getValue().count;
+            if (genreStatsRepository.applyDelta(genreId, count) == 0) {
+                // Genres that predate the table or were inserted without one
+                if (insertEmpty(genreId, entry.getValue().userId)) {
+                    genreStatsRepository.recount(genreId);
+                } else {
+                    // Another writer created the row first and counted its own books: add ours on top
+                    genreStatsRepository.applyDelta(genreId, count);
+                }
+            }
+        }
+        deltas.clear();
+    }
+
+    // Through JDBC on the transaction's connection: a failed JPA statement would mark the whole
+    // transaction rollback-only, while SQL Server only fails the statement
+    private boolean insertEmpty(Long genreId, Long userId) {
+        try {
+            jdbcTemplate.update(INSERT_EMPTY_SQL, genreId, userId);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private static void add(Map<Long, Delta> deltas, Long genreId, Long userId, long count) {
+        if (genreId == null) return;
+        deltas.computeIfAbsent(genreId, id -> new Delta(userId)).count += count;
+    }
+
+    private static final class Delta {
+
+        private final Long userId;
+        private long count;
+
+        Delta(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
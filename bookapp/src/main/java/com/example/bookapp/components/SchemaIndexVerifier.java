@@ -0,0 +1,111 @@
+package com.example.bookapp.components;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Checks at startup that the indexes created by the migrations under {@code db/migration} are present,
+ * so a database that was restored, hand edited or migrated by an older build does not silently fall
+ * back to table scans.
+ */
+@Slf4j
+@Component
+public class SchemaIndexVerifier {
+
+    static final Map<String, List<String>> EXPECTED_INDEXES = Map.of(
+            "books", List.of(
+                    "ix_books_user_isbn",
+                    "ix_books_user_created_isbn",
+                    "ix_books_user_genre_created",
+                    "ix_books_user_published_isbn",
+                    "ix_books_user_title_isbn",
+                    "ix_books_genre"),
+            "genres", List.of(
+                    "ix_genres_user_name",
+                    "ix_genres_user_name_upper"),
+            "genre_stats", List.of(
+                    "ix_genre_stats_user"));
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final boolean failOnMissing;
+
+    public SchemaIndexVerifier(DataSource dataSource,
+                               @Value("${schema.index-check.enabled:true}") boolean enabled,
+                               @Value("${schema.index-check.fail-on-missing:false}") boolean failOnMissing) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.failOnMissing = failOnMissing;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        if (!enabled) return;
+
+        List<String> missing;
+        try {
+            missing = findMissingIndexes();
+        } catch (SQLException e) {
+            log.warn("Could not read index metadata: {}", e.getMessage());
+            return;
+        }
+
+        if (missing.isEmpty()) {
+            log.info("All {} expected indexes are present", EXPECTED_INDEXES.values().stream().mapToInt(List::size).sum());
+            return;
+        }
+
+        String message = "Missing database indexes " + missing + "; run the pending migrations";
+        if (failOnMissing) {
+            throw new IllegalStateException(message);
+        }
+        log.error(message);
+    }
+
+    public List<String> findMissingIndexes() throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<String>> table : EXPECTED_INDEXES.entrySet()) {
+                Set<String> present = indexNames(metaData, connection, table.getKey());
+                for (String index : table.getValue()) {
+                    if (!present.contains(index.toLowerCase(Locale.ROOT))) {
+                        missing.add(table.getKey() + "." + index);
+                    }
+                }
+            }
+        }
+        missing.sort(null);
+        return missing;
+    }
+
+    private static Set<String> indexNames(DatabaseMetaData metaData, Connection connection, String table)
+            throws SQLException {
+        Set<String> names = new TreeSet<>();
+        // Identifiers may be stored upper case (H2) or as written (SQL Server)
+        for (String candidate : List.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, candidate, false, true)) {
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    if (name != null) names.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+}
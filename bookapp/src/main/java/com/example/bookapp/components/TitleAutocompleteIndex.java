@@ -0,0 +1,152 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.dto.output.BookSuggestionDTO;
+import com.example.bookapp.events.BookChangedEvent;
+import com.example.bookapp.repositories.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Title suggestions for type-ahead, answered from memory.
+ * <p>
+ * A user's titles are loaded with one query the first time they type and kept in sorted maps keyed
+ * by the normalized title (lower case, no accents), so a lookup is a range scan that stops after
+ * {@code limit} entries. Titles also match from the start of any later word, ranked after titles
+ * that start with the prefix. Writes are applied from {@link BookChangedEvent}s once they commit, but
+ * only on this node, so a user's maps are reloaded {@code ttl} after they were loaded however busy they
+ * are; another node's writes therefore show up within {@code ttl}.
+ */
+@Component
+public class TitleAutocompleteIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Separates the normalized text from the ISBN in keys, and sorts before any character of either
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final BookRepository bookRepository;
+    private final BoundedCache<Long, UserTitles> cache;
+
+    public TitleAutocompleteIndex(BookRepository bookRepository,
+                                  @Value("${books.autocomplete.max-users:10000}") int maxUsers,
+                                  @Value("${books.autocomplete.ttl:5m}") Duration ttl) {
+        this.bookRepository = bookRepository;
+        this.cache = new BoundedCache<>(maxUsers, ttl);
+    }
+
+    public List<BookSuggestionDTO> suggest(Long userId, String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) return List.of();
+
+        UserTitles titles = cache.getOrLoad(userId, id -> UserTitles.of(bookRepository.findTitlesByUserId(id)));
+        Map<String, BookSuggestionDTO> suggestions = new LinkedHashMap<>();
+        collect(titles.byTitle, normalized, limit, suggestions);
+        collect(titles.byWord, normalized, limit, suggestions);
+        return new ArrayList<>(suggestions.values());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        UserTitles titles = cache.get(event.userId());
+        if (titles == null) return;
+
+        if (event.type() == BookChangedEvent.Type.DELETED) {
+            titles.remove(event.isbn());
+        } else {
+            titles.put(event.isbn(), event.title());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${books.autocomplete.purge-interval:PT1M}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public BoundedCache.Stats stats() {
+        return cache.stats();
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static void collect(NavigableMap<String, BookSuggestionDTO> index, String prefix, int limit,
+                                Map<String, BookSuggestionDTO> into) {
+        if (into.size() >= limit) return;
+        for (BookSuggestionDTO suggestion : index.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+            into.putIfAbsent(suggestion.getIsbn(), suggestion);
+            if (into.size() >= limit) return;
+        }
+    }
+
+    private static final class UserTitles {
+
+        private final NavigableMap<String, BookSuggestionDTO> byTitle = new ConcurrentSkipListMap<>();
+        private final NavigableMap<String, BookSuggestionDTO> byWord = new ConcurrentSkipListMap<>();
+        private final Map<String, String> titleByIsbn = new HashMap<>();
+
+        static UserTitles of(List<Object[]> rows) {
+            UserTitles titles = new UserTitles();
+            for (Object[] row : rows) {
+                titles.put((String) row[0], (String) row[1]);
+            }
+            return titles;
+        }
+
+        synchronized void put(String isbn, String title) {
+            remove(isbn);
+            if (title == null) return;
+
+            BookSuggestionDTO suggestion = new BookSuggestionDTO(isbn, title);
+            String normalized = normalize(title);
+            byTitle.put(normalized + KEY_SEPARATOR + isbn, suggestion);
+            for (String suffix : laterWords(normalized)) {
+                byWord.put(suffix + KEY_SEPARATOR + isbn, suggestion);
+            }
+            titleByIsbn.put(isbn, title);
+        }
+
+        synchronized void remove(String isbn) {
+            String previous = titleByIsbn.remove(isbn);
+            if (previous == null) return;
+
+            String normalized = normalize(previous);
+            byTitle.remove(normalized + KEY_SEPARATOR + isbn);
+            for (String suffix : laterWords(normalized)) {
+                byWord.remove(suffix + KEY_SEPARATOR + isbn);
+            }
+        }
+
+        // "effective java 3rd" -> "java 3rd", "3rd"
+        private static List<String> laterWords(String normalized) {
+            List<String> suffixes = new ArrayList<>();
+            int space = normalized.indexOf(' ');
+            while (space >= 0) {
+                suffixes.add(normalized.substring(space + 1));
+                space = normalized.indexOf(' ', space + 1);
+            }
+            return suffixes;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.bookapp.controllers;
 
 import com.example.bookapp.dto.input.LoginRequestDTO;
+import com.example.bookapp.dto.input.RefreshTokenRequestDTO;
 import com.example.bookapp.dto.output.LoginResponseDTO;
+import com.example.bookapp.security.jwt.JwtClaims;
 import com.example.bookapp.services.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -19,4 +22,23 @@ public class AuthenticationController {
     public ResponseEntity<LoginResponseDTO> login(@RequestBody @Valid LoginRequestDTO request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@RequestBody @Valid RefreshTokenRequestDTO request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication,
+                                       @RequestBody(required = false) RefreshTokenRequestDTO request) {
+        String refreshToken = request != null ? request.getRefreshToken() : null;
+        authService.logout((JwtClaims) authentication.getCredentials(), refreshToken);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(Authentication authentication) {
+        authService.logoutAll((JwtClaims) authentication.getCredentials());
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,14 +1,26 @@
 package com.example.bookapp.controllers;
 
+import com.example.bookapp.dto.input.BookFilterDTO;
+import com.example.bookapp.dto.input.BookLookupDTO;
 import com.example.bookapp.dto.input.BookRegisterDTO;
 import com.example.bookapp.dto.input.BookUpdateDTO;
+import com.example.bookapp.dto.output.BookCursorPageDTO;
+import com.example.bookapp.dto.output.BookImportReportDTO;
+import com.example.bookapp.dto.output.BookLookupResultDTO;
 import com.example.bookapp.dto.output.BookResponseDTO;
+import com.example.bookapp.dto.output.BookSearchResultDTO;
+import com.example.bookapp.dto.output.BookSuggestionDTO;
+import com.example.bookapp.services.BookExportService;
+import com.example.bookapp.services.BookImportService;
+import com.example.bookapp.services.BookSearchService;
 import com.example.bookapp.services.BookService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -17,8 +29,11 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/books")
@@ -26,6 +41,9 @@ import java.nio.file.Path;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final BookSearchService bookSearchService;
 
     @PostMapping
     public ResponseEntity<BookResponseDTO> register(@Valid @RequestBody BookRegisterDTO dto) {
@@ -33,6 +51,18 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<BookImportReportDTO> importCsv(@RequestParam Long userId, InputStream body) {
+        BookImportReportDTO report = bookImportService.importBooks(userId, body, BookImportService.Format.CSV);
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/jsonl"})
+    public ResponseEntity<BookImportReportDTO> importJsonLines(@RequestParam Long userId, InputStream body) {
+        BookImportReportDTO report = bookImportService.importBooks(userId, body, BookImportService.Format.JSON_LINES);
+        return ResponseEntity.ok(report);
+    }
+
     @PatchMapping
     public ResponseEntity<BookResponseDTO> update(@Validated @RequestBody BookUpdateDTO dto) {
         BookResponseDTO response = bookService.update(dto);
@@ -49,20 +79,86 @@ public class BookController {
     public ResponseEntity<Page<BookResponseDTO>> getBooksByUser(
             @RequestParam Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "5") int size
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "true") boolean includeSynopsis
+    ) {
+        Page<BookResponseDTO> response = bookService.findPaginated(userId, page, size, includeSynopsis);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<BookCursorPageDTO> getBooksByUserAfterCursor(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(defaultValue = "true") boolean includeSynopsis
+    ) {
+        BookCursorPageDTO response = bookService.findByCursor(userId, cursor, size, includeTotal, includeSynopsis);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<Slice<BookResponseDTO>> query(@Valid @ModelAttribute BookFilterDTO filter) {
+        Slice<BookResponseDTO> response = bookService.findByFilter(filter);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<BookSearchResultDTO> search(
+            @RequestParam Long userId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        BookSearchResultDTO response = bookSearchService.search(userId, q, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<BookSuggestionDTO>> autocomplete(
+            @RequestParam Long userId,
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit
     ) {
-        Page<BookResponseDTO> response = bookService.findPaginated(userId, page, size);
+        List<BookSuggestionDTO> response = bookService.suggestTitles(userId, prefix, limit);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Void> rebuildSearchIndex(@RequestParam Long userId) {
+        bookSearchService.rebuild(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/export")
+    public void export(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "jsonl") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        BookExportService.Format exportFormat = switch (format.toLowerCase()) {
+            case "csv" -> BookExportService.Format.CSV;
+            case "jsonl" -> BookExportService.Format.JSON_LINES;
+            default -> throw new IllegalArgumentException("Unsupported export format: " + format);
+        };
+        bookExportService.checkUserExists(userId);
+
+        boolean csv = exportFormat == BookExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"books-" + userId + (csv ? ".csv" : ".jsonl") + "\"");
+        bookExportService.export(userId, exportFormat, response.getOutputStream());
+    }
+
     @GetMapping("/user/{userId}/genre/{genreId}")
     public ResponseEntity<Page<BookResponseDTO>> findByGenreAndUser(
             @PathVariable @Min(1) Long genreId,
             @PathVariable @Min(1) Long userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "5") int size
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "true") boolean includeSynopsis
     ) {
-        Page<BookResponseDTO> result = bookService.findByGenreIdAndUserId(genreId, userId, page, size);
+        Page<BookResponseDTO> result = bookService.findByGenreIdAndUserId(genreId, userId, page, size, includeSynopsis);
         return ResponseEntity.ok(result);
     }
 
@@ -75,6 +171,12 @@ public class BookController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/lookup")
+    public ResponseEntity<BookLookupResultDTO> lookup(@Valid @RequestBody BookLookupDTO dto) {
+        BookLookupResultDTO response = bookService.findByIsbnsAndUserId(dto.getIsbns(), dto.getUserId());
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{isbn}/cover")
     public ResponseEntity<BookResponseDTO> updateCoverImage(
             @PathVariable String isbn,
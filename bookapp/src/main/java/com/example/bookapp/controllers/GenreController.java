@@ -1,15 +1,19 @@
 package com.example.bookapp.controllers;
 
+import com.example.bookapp.components.GenreCatalogCache;
 import com.example.bookapp.dto.input.GenreRegisterDTO;
 import com.example.bookapp.dto.output.GenreResponseDTO;
+import com.example.bookapp.dto.output.GenreStatsDTO;
 import com.example.bookapp.services.GenreService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,9 +32,24 @@ public class GenreController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<GenreResponseDTO>> findAllByUser(@PathVariable @Min(1) Long userId) {
-        List<GenreResponseDTO> genres = genreService.findAllByUserId(userId);
-        return ResponseEntity.ok(genres);
+    public ResponseEntity<List<GenreResponseDTO>> findAllByUser(@PathVariable @Min(1) Long userId,
+                                                                WebRequest request) {
+        GenreCatalogCache.Catalog catalog = genreService.findCatalogByUserId(userId);
+        if (request.checkNotModified(catalog.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(catalog.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(catalog.genres());
     }
-}
 
+    @GetMapping("/user/{userId}/stats")
+    public ResponseEntity<List<GenreStatsDTO>> findStatsByUser(@PathVariable @Min(1) Long userId) {
+        List<GenreStatsDTO> stats = genreService.findStatsByUserId(userId);
+        return ResponseEntity.ok(stats);
+    }
+}
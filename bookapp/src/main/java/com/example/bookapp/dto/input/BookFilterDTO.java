@@ -0,0 +1,52 @@
+package com.example.bookapp.dto.input;
+
+import jakarta.validation.constraints.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class BookFilterDTO {
+
+    @NotNull(message = "User ID is required")
+    @Min(value = 1, message = "User ID must be greater than or equal to 1")
+    private Long userId;
+
+    @Size(max = 50, message = "At most 50 genres can be filtered on")
+    private List<@NotNull @Min(value = 1, message = "Genre ID must be greater than or equal to 1") Long> genreIds;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    // Null means either
+    private Boolean hasCover;
+
+    @Pattern(regexp = "title|publishedDate|createdAt", message = "Sort must be one of title, publishedDate, createdAt")
+    private String sort = "createdAt";
+
+    @Pattern(regexp = "asc|desc", message = "Direction must be asc or desc")
+    private String direction = "asc";
+
+    @Min(value = 0, message = "Page must be greater than or equal to 0")
+    private int page = 0;
+
+    @Min(value = 1, message = "Size must be between 1 and 100")
+    @Max(value = 100, message = "Size must be between 1 and 100")
+    private int size = 5;
+
+    private boolean includeSynopsis = true;
+}
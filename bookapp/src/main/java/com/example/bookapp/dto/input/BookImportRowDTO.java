@@ -0,0 +1,19 @@
+package com.example.bookapp.dto.input;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One line of a bulk import. The genre is given either by id or by name among the user's genres.
+ */
+@Getter
+@Setter
+public class BookImportRowDTO {
+
+    private String isbn;
+    private String title;
+    private Long genreId;
+    private String genre;
+    private String publishedDate;
+    private String synopsis;
+}
@@ -0,0 +1,23 @@
+package com.example.bookapp.dto.input;
+
+import jakarta.validation.constraints.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BookLookupDTO {
+
+    // Also the IN list size of one lookup query, well under the 2100 parameter limit of SQL Server
+    public static final int MAX_ISBNS = 500;
+
+    @NotNull(message = "User ID is required")
+    @Min(value = 1, message = "User ID must be greater than or equal to 1")
+    private Long userId;
+
+    @NotEmpty(message = "At least one ISBN is required")
+    @Size(max = MAX_ISBNS, message = "At most " + MAX_ISBNS + " ISBNs can be looked up per request")
+    private List<@NotBlank(message = "ISBN cannot be blank") String> isbns;
+}
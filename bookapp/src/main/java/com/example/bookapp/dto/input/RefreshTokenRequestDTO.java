@@ -0,0 +1,13 @@
+package com.example.bookapp.dto.input;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RefreshTokenRequestDTO {
+
+    @NotBlank(message = "Refresh token cannot be blank or null")
+    private String refreshToken;
+}
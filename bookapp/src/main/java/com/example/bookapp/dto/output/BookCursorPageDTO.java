@@ -0,0 +1,25 @@
+package com.example.bookapp.dto.output;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookCursorPageDTO {
+
+    private List<BookResponseDTO> content;
+
+    // Null on the last page
+    private String nextCursor;
+
+    // Only computed when the client asks for it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+}
@@ -0,0 +1,22 @@
+package com.example.bookapp.dto.output;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportReportDTO {
+
+    private int totalRows;
+    private int created;
+    private int rejected;
+    private long durationMillis;
+    private double rowsPerSecond;
+    private List<BookImportRowResultDTO> rows;
+}
@@ -0,0 +1,22 @@
+package com.example.bookapp.dto.output;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookImportRowResultDTO {
+
+    public enum Status { CREATED, INVALID, DUPLICATE, FAILED }
+
+    private long line;
+    private String isbn;
+    private Status status;
+    private String message;
+}
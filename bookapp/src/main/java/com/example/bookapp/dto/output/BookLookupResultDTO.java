@@ -0,0 +1,20 @@
+package com.example.bookapp.dto.output;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookLookupResultDTO {
+
+    // Both lists follow the order of the request, without repeats
+    private List<BookResponseDTO> found;
+
+    private List<String> missing;
+}
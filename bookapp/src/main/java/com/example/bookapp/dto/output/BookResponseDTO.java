@@ -1,18 +1,27 @@
 package com.example.bookapp.dto.output;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookResponseDTO {
 
     private String isbn;
     private String title;
     private String genre;
     private LocalDate publishedDate;
+    // Left out of listings requested with includeSynopsis=false
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String synopsis;
     private String coverImagePath;
+    private LocalDateTime createdAt;
 }
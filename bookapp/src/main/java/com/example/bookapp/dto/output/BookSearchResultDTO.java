@@ -0,0 +1,21 @@
+package com.example.bookapp.dto.output;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchResultDTO {
+
+    // Best match first
+    private List<BookResponseDTO> content;
+
+    // All matches in the index, not only the ones returned
+    private long totalHits;
+}
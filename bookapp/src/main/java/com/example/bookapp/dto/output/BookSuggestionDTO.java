@@ -0,0 +1,17 @@
+package com.example.bookapp.dto.output;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSuggestionDTO {
+
+    private String isbn;
+
+    private String title;
+}
@@ -1,10 +1,14 @@
 package com.example.bookapp.dto.output;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class GenreResponseDTO {
 
     private Long id;
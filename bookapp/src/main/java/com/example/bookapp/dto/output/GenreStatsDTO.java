@@ -0,0 +1,22 @@
+package com.example.bookapp.dto.output;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenreStatsDTO {
+
+    private Long id;
+    private String name;
+    private long bookCount;
+
+    // Null when the genre has no books
+    private LocalDateTime latestCreatedAt;
+}
@@ -10,4 +10,5 @@ import lombok.Setter;
 public class LoginResponseDTO {
 
     private String token;
+    private String refreshToken;
 }
@@ -2,18 +2,28 @@ package com.example.bookapp.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Nationalized;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "books")
+// The schema is owned by db/migration; these mirror the migrated indexes minus their INCLUDE columns
+@Table(name = "books", indexes = {
+        @Index(name = "ix_books_user_isbn", columnList = "user_id, isbn"),
+        @Index(name = "ix_books_user_created_isbn", columnList = "user_id, created_at, isbn"),
+        @Index(name = "ix_books_user_genre_created", columnList = "user_id, genre_id, created_at"),
+        @Index(name = "ix_books_user_published_isbn", columnList = "user_id, published_date, isbn"),
+        @Index(name = "ix_books_user_title_isbn", columnList = "user_id, title, isbn"),
+        @Index(name = "ix_books_genre", columnList = "genre_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Book {
+public class Book implements Persistable<String> {
 
     @Id
     private String isbn;
@@ -28,7 +38,9 @@ public class Book {
     @Column(name = "published_date", nullable = false)
     private LocalDate publishedDate;
 
-    @Column(columnDefinition = "TEXT", nullable = false)
+    // NVARCHAR(500), stored in-row; BookRegisterDTO caps the synopsis at 500 characters
+    @Nationalized
+    @Column(length = 500, nullable = false)
     private String synopsis;
 
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -42,10 +54,34 @@ public class Book {
     @Column(name = "cover_image_path")
     private String coverImagePath;
 
+    // The ISBN is assigned, so Spring Data cannot tell new books from detached ones by the id. Without
+    // this flag save() would merge, running a SELECT before every INSERT.
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
+    @Override
+    public String getId() {
+        return isbn;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
     }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        newEntity = false;
+    }
 }
@@ -8,7 +8,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "genres", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"name", "user_id"})
+        @UniqueConstraint(name = "uk_genres_name_user", columnNames = {"name", "user_id"})
+}, indexes = {
+        @Index(name = "ix_genres_user_name", columnList = "user_id, name")
 })
 @Getter
 @Setter
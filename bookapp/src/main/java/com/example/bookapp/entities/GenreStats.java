@@ -0,0 +1,35 @@
+package com.example.bookapp.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Book count and newest book per genre, kept up to date by
+ * {@link com.example.bookapp.components.GenreStatsListener} in the same transaction as the book writes.
+ */
+@Entity
+@Table(name = "genre_stats", indexes = {
+        @Index(name = "ix_genre_stats_user", columnList = "user_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GenreStats {
+
+    @Id
+    @Column(name = "genre_id")
+    private Long genreId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "book_count", nullable = false)
+    private long bookCount;
+
+    @Column(name = "latest_created_at")
+    private LocalDateTime latestCreatedAt;
+}
@@ -1,11 +1,13 @@
 package com.example.bookapp.entities;
 
+import com.example.bookapp.security.UserCacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheInvalidationListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,6 +28,10 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    // Incremented to invalidate every token issued before the change
+    @Column(name = "token_epoch", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long tokenEpoch;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Book> books;
 
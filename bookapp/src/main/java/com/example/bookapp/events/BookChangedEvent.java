@@ -0,0 +1,25 @@
+package com.example.bookapp.events;
+
+/**
+ * Published by the book service after a book is created, updated or deleted. Genre ids are null
+ * where they do not apply: {@code previousGenreId} on creation, {@code genreId} on deletion. Title
+ * and synopsis carry the values after the change and are null on deletion.
+ */
+public record BookChangedEvent(Type type, Long userId, String isbn, Long previousGenreId, Long genreId,
+                               String title, String synopsis) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static BookChangedEvent created(Long userId, String isbn, Long genreId, String title, String synopsis) {
+        return new BookChangedEvent(Type.CREATED, userId, isbn, null, genreId, title, synopsis);
+    }
+
+    public static BookChangedEvent updated(Long userId, String isbn, Long previousGenreId, Long genreId,
+                                           String title, String synopsis) {
+        return new BookChangedEvent(Type.UPDATED, userId, isbn, previousGenreId, genreId, title, synopsis);
+    }
+
+    public static BookChangedEvent deleted(Long userId, String isbn, Long genreId) {
+        return new BookChangedEvent(Type.DELETED, userId, isbn, genreId, null, null, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.bookapp.events;
+
+/**
+ * Published by the genre service whenever a genre of the user is created, renamed or deleted. Any new
+ * genre write must publish it too, or the cached catalog of that user goes stale until its TTL.
+ */
+public record GenreChangedEvent(Long userId, Long genreId) {
+}
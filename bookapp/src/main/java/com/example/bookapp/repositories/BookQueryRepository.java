@@ -0,0 +1,14 @@
+package com.example.bookapp.repositories;
+
+import com.example.bookapp.dto.input.BookFilterDTO;
+import com.example.bookapp.dto.output.BookResponseDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Queries whose shape depends on the request, built with the Criteria API. Mixed into {@link BookRepository}.
+ */
+public interface BookQueryRepository {
+
+    Slice<BookResponseDTO> findByFilter(BookFilterDTO filter, Pageable pageable);
+}
@@ -0,0 +1,86 @@
+package com.example.bookapp.repositories;
+
+import com.example.bookapp.dto.input.BookFilterDTO;
+import com.example.bookapp.dto.output.BookResponseDTO;
+import com.example.bookapp.entities.Book;
+import com.example.bookapp.entities.Genre;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Only the filters that were given become predicates, always behind {@code user_id}, so each
+ * combination leads with an index column: {@code genre_id} for genre filters, otherwise the column of
+ * the sort. Like the listing queries, rows come back as DTOs with the genre name joined in, and one
+ * extra row is fetched instead of running a COUNT.
+ */
+public class BookQueryRepositoryImpl implements BookQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookResponseDTO> findByFilter(BookFilterDTO filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookResponseDTO> query = cb.createQuery(BookResponseDTO.class);
+        Root<Book> book = query.from(Book.class);
+        Join<Book, Genre> genre = book.join("genre");
+
+        query.select(cb.construct(BookResponseDTO.class,
+                book.get("isbn"),
+                book.get("title"),
+                genre.get("name"),
+                book.get("publishedDate"),
+                filter.isIncludeSynopsis() ? book.get("synopsis") : cb.nullLiteral(String.class),
+                book.get("coverImagePath"),
+                book.get("createdAt")));
+        query.where(predicates(filter, cb, book).toArray(Predicate[]::new));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), book, cb));
+
+        List<BookResponseDTO> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private static List<Predicate> predicates(BookFilterDTO filter, CriteriaBuilder cb, Root<Book> book) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(book.get("user").get("id"), filter.getUserId()));
+
+        if (filter.getGenreIds() != null && !filter.getGenreIds().isEmpty()) {
+            predicates.add(book.get("genre").get("id").in(filter.getGenreIds()));
+        }
+        if (filter.getPublishedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.get("publishedDate"), filter.getPublishedFrom()));
+        }
+        if (filter.getPublishedTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(book.get("publishedDate"), filter.getPublishedTo()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.get("createdAt"), filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(book.get("createdAt"), filter.getCreatedTo()));
+        }
+        if (filter.getHasCover() != null) {
+            predicates.add(filter.getHasCover()
+                    ? cb.isNotNull(book.get("coverImagePath"))
+                    : cb.isNull(book.get("coverImagePath")));
+        }
+        return predicates;
+    }
+}
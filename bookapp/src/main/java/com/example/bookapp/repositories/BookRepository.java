@@ -1,24 +1,111 @@
 package com.example.bookapp.repositories;
 
+import com.example.bookapp.dto.output.BookResponseDTO;
 import com.example.bookapp.entities.Book;
-import com.example.bookapp.entities.Genre;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, String> {
+public interface BookRepository extends JpaRepository<Book, String>, BookQueryRepository {
 
+    // Callers build responses with the genre name, so it comes in the same SELECT
+    @EntityGraph(attributePaths = "genre")
     Optional<Book> findByIsbnAndUserId(String isbn, Long userId);
 
     boolean existsByIsbn(String isbn);
 
-    Page<Book> findByUserId(Long userId, Pageable pageable);
-
-    Page<Book> findByGenreAndUserId(Genre genre, Long userId, Pageable pageable);
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
 
     long countByGenreId(Long genreId);
+
+    @Query("SELECT b.genre.id, COUNT(b) FROM Book b WHERE b.user.id = :userId GROUP BY b.genre.id")
+    List<Object[]> countByGenreForUser(@Param("userId") Long userId);
+
+    // Covered by ix_books_user_created_isbn, which includes the title
+    @Query("SELECT b.isbn, b.title FROM Book b WHERE b.user.id = :userId")
+    List<Object[]> findTitlesByUserId(@Param("userId") Long userId);
+
+    // Listing projections: the genre name is joined in and totals come from BookCountCache, so a page is one
+    // SELECT. Summaries leave the synopsis out of the select list, so the covering indexes from V2 serve the
+    // page without going back to the table.
+
+    String SELECT_RESPONSE = "SELECT new com.example.bookapp.dto.output.BookResponseDTO(" +
+            "b.isbn, b.title, g.name, b.publishedDate, b.synopsis, b.coverImagePath, b.createdAt) ";
+
+    String SELECT_SUMMARY = "SELECT new com.example.bookapp.dto.output.BookResponseDTO(" +
+            "b.isbn, b.title, g.name, b.publishedDate, CAST(NULL AS String), b.coverImagePath, b.createdAt) ";
+
+    String BY_USER = "FROM Book b JOIN b.genre g WHERE b.user.id = :userId ";
+
+    String BY_GENRE_AND_USER = "FROM Book b JOIN b.genre g WHERE g.id = :genreId AND b.user.id = :userId ";
+
+    String AFTER_CURSOR = "AND (b.createdAt > :createdAt OR (b.createdAt = :createdAt AND b.isbn > :isbn)) ";
+
+    String KEYSET_ORDER = "ORDER BY b.createdAt, b.isbn";
+
+    @Query(SELECT_RESPONSE + BY_USER)
+    Slice<BookResponseDTO> findResponsesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SELECT_SUMMARY + BY_USER)
+    Slice<BookResponseDTO> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SELECT_RESPONSE + BY_GENRE_AND_USER)
+    Slice<BookResponseDTO> findResponsesByGenreIdAndUserId(@Param("genreId") Long genreId,
+                                                          @Param("userId") Long userId,
+                                                          Pageable pageable);
+
+    @Query(SELECT_SUMMARY + BY_GENRE_AND_USER)
+    Slice<BookResponseDTO> findSummariesByGenreIdAndUserId(@Param("genreId") Long genreId,
+                                                          @Param("userId") Long userId,
+                                                          Pageable pageable);
+
+    default Slice<BookResponseDTO> findListingByUserId(Long userId, boolean includeSynopsis, Pageable pageable) {
+        return includeSynopsis
+                ? findResponsesByUserId(userId, pageable)
+                : findSummariesByUserId(userId, pageable);
+    }
+
+    default Slice<BookResponseDTO> findListingByGenreIdAndUserId(Long genreId, Long userId, boolean includeSynopsis,
+                                                                Pageable pageable) {
+        return includeSynopsis
+                ? findResponsesByGenreIdAndUserId(genreId, userId, pageable)
+                : findSummariesByGenreIdAndUserId(genreId, userId, pageable);
+    }
+
+    @Query(SELECT_RESPONSE + BY_USER + "AND b.isbn IN :isbns")
+    List<BookResponseDTO> findResponsesByUserIdAndIsbnIn(@Param("userId") Long userId,
+                                                         @Param("isbns") Collection<String> isbns);
+
+    // Keyset pagination over (created_at, isbn), served by ix_books_user_created_isbn; no COUNT involved
+
+    @Query(SELECT_RESPONSE + BY_USER + KEYSET_ORDER)
+    List<BookResponseDTO> findFirstKeysetPage(@Param("userId") Long userId, Limit limit);
+
+    @Query(SELECT_SUMMARY + BY_USER + KEYSET_ORDER)
+    List<BookResponseDTO> findFirstKeysetSummaryPage(@Param("userId") Long userId, Limit limit);
+
+    @Query(SELECT_RESPONSE + BY_USER + AFTER_CURSOR + KEYSET_ORDER)
+    List<BookResponseDTO> findKeysetPageAfter(@Param("userId") Long userId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("isbn") String isbn,
+                                              Limit limit);
+
+    @Query(SELECT_SUMMARY + BY_USER + AFTER_CURSOR + KEYSET_ORDER)
+    List<BookResponseDTO> findKeysetSummaryPageAfter(@Param("userId") Long userId,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("isbn") String isbn,
+                                                     Limit limit);
 }
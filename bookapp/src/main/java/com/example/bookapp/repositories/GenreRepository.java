@@ -1,7 +1,10 @@
 package com.example.bookapp.repositories;
 
+import com.example.bookapp.dto.output.GenreResponseDTO;
 import com.example.bookapp.entities.Genre;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,5 +19,15 @@ public interface GenreRepository extends JpaRepository<Genre, Long> {
 
     List<Genre> findByUserId(Long userId);
 
+    // Served by ix_genres_user_name; the id comes with it as the clustered key
+    @Query("SELECT new com.example.bookapp.dto.output.GenreResponseDTO(g.id, g.name) " +
+            "FROM Genre g WHERE g.user.id = :userId ORDER BY g.id")
+    List<GenreResponseDTO> findResponsesByUserId(@Param("userId") Long userId);
+
     boolean existsByIdAndBooksIsNotEmpty(Long genreId);
+
+    boolean existsByIdAndUserId(Long genreId, Long userId);
+
+    @Query("SELECT g.name FROM Genre g WHERE g.id = :genreId AND g.user.id = :userId")
+    Optional<String> findNameByIdAndUserId(@Param("genreId") Long genreId, @Param("userId") Long userId);
 }
\ No newline at end of file
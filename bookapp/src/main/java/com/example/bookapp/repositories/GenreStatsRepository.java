@@ -0,0 +1,47 @@
+package com.example.bookapp.repositories;
+
+import com.example.bookapp.dto.output.GenreStatsDTO;
+import com.example.bookapp.entities.GenreStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GenreStatsRepository extends JpaRepository<GenreStats, Long> {
+
+    // The genre sidebar: one row per genre of the user. A genre without a stats row (inserted behind the
+    // application's back, e.g. by a seed script) is counted live until its next write creates the row
+    @Query("SELECT new com.example.bookapp.dto.output.GenreStatsDTO(g.id, g.name, " +
+            "CASE WHEN s.genreId IS NULL " +
+            "THEN (SELECT COUNT(b) FROM Book b WHERE b.user.id = g.user.id AND b.genre.id = g.id) " +
+            "ELSE s.bookCount END, " +
+            "CASE WHEN s.genreId IS NULL " +
+            "THEN (SELECT MAX(b.createdAt) FROM Book b WHERE b.user.id = g.user.id AND b.genre.id = g.id) " +
+            "ELSE s.latestCreatedAt END) " +
+            "FROM Genre g LEFT JOIN GenreStats s ON s.genreId = g.id " +
+            "WHERE g.user.id = :userId ORDER BY g.id")
+    List<GenreStatsDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("INSERT INTO GenreStats (genreId, userId, bookCount) VALUES (:genreId, :userId, 0)")
+    int insertEmpty(@Param("genreId") Long genreId, @Param("userId") Long userId);
+
+    // The newest book is a top-1 seek on ix_books_user_genre_created, so it is re-read rather than tracked
+    @Modifying
+    @Query("UPDATE GenreStats s SET s.bookCount = s.bookCount + :delta, " +
+            "s.latestCreatedAt = (SELECT MAX(b.createdAt) FROM Book b WHERE b.user.id = s.userId AND b.genre.id = s.genreId) " +
+            "WHERE s.genreId = :genreId")
+    int applyDelta(@Param("genreId") Long genreId, @Param("delta") long delta);
+
+    // Full recount of one genre, for rows that were missing
+    @Modifying
+    @Query("UPDATE GenreStats s SET " +
+            "s.bookCount = (SELECT COUNT(b) FROM Book b WHERE b.user.id = s.userId AND b.genre.id = s.genreId), " +
+            "s.latestCreatedAt = (SELECT MAX(b.createdAt) FROM Book b WHERE b.user.id = s.userId AND b.genre.id = s.genreId) " +
+            "WHERE s.genreId = :genreId")
+    int recount(@Param("genreId") Long genreId);
+}
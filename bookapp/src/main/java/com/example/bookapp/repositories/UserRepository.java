@@ -2,6 +2,9 @@ package com.example.bookapp.repositories;
 
 import com.example.bookapp.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1 WHERE u.id = :id")
+    int advanceTokenEpoch(@Param("id") Long id);
 }
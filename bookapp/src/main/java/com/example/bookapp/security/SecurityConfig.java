@@ -1,7 +1,13 @@
 package com.example.bookapp.security;
 
 import com.example.bookapp.security.jwt.JwtAuthenticationFilter;
+import com.example.bookapp.security.password.BCryptCostCalibrator;
+import com.example.bookapp.security.password.BoundedPasswordEncoder;
+import com.example.bookapp.security.ratelimit.RateLimitFilter;
+import com.example.bookapp.security.ratelimit.RateLimitProperties;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,7 +16,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,13 +23,16 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final UserDetailsService userDetailsService;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
 
@@ -43,11 +51,15 @@ public class SecurityConfig {
                         ).permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/users/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/v1/auth/login").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/refresh").permitAll()
                         .anyRequest().authenticated()
                 )
 
                 // ❌ authenticationProvider deleted
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // IP-keyed limits before any token work, user-keyed ones once the principal is known
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter.userStage(), JwtAuthenticationFilter.class)
                 .build();
     }
 
@@ -65,8 +77,15 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.strength:10}") int strength,
+            @Value("${security.password-hashing.calibrate:false}") boolean calibrate,
+            @Value("${security.password-hashing.target-latency:250ms}") Duration targetLatency,
+            @Value("${security.password-hashing.max-concurrent:2}") int maxConcurrent,
+            @Value("${security.password-hashing.queue-capacity:32}") int queueCapacity
+    ) {
+        int cost = calibrate ? BCryptCostCalibrator.calibrate(targetLatency, strength) : strength;
+        return new BoundedPasswordEncoder(cost, maxConcurrent, queueCapacity);
     }
 
     @Bean
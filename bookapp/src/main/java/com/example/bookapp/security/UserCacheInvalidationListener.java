@@ -0,0 +1,40 @@
+package com.example.bookapp.security;
+
+import com.example.bookapp.entities.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts the cached {@link org.springframework.security.core.userdetails.UserDetails} every time a
+ * {@link User} row is inserted, updated or deleted, whatever service performs the write. Inside a
+ * transaction the entry is dropped once it commits; evicting earlier would let a concurrent request
+ * cache the row as it was before the write.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final UserDetailsCache userDetailsCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onUserWritten(User user) {
+        String email = user.getEmail();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userDetailsCache.invalidate(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userDetailsCache.invalidate(email);
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.bookapp.security;
+
+import com.example.bookapp.components.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Keeps recently loaded users by email so a burst of requests from one session does not turn into
+ * a burst of identical SELECTs. Entries are dropped by {@link UserCacheInvalidationListener} whenever
+ * the user row is written.
+ */
+@Component
+public class UserDetailsCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final BoundedCache<String, UserDetails> cache;
+
+    public UserDetailsCache(@Value("${security.user-cache.enabled:true}") boolean enabled,
+                            @Value("${security.user-cache.max-size:10000}") int maxSize,
+                            @Value("${security.user-cache.ttl:60s}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = new BoundedCache<>(maxSize, ttl);
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        if (!enabled) return loader.apply(email);
+        return cache.getOrLoad(email, loader);
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    public BoundedCache.Stats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.bindTo(registry, "users");
+    }
+}
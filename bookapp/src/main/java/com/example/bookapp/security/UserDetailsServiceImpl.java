@@ -4,18 +4,35 @@ import com.example.bookapp.entities.User;
 import com.example.bookapp.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return userDetailsCache.get(email, this::loadFromDatabase);
+    }
+
+    /**
+     * Called by the authentication provider after a successful login when the stored hash was
+     * produced with a lower BCrypt cost than the current one.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = ((CustomUserDetails) userDetails).getUser();
+        user.setPassword(newPassword);
+        return new CustomUserDetails(userRepository.save(user));
+    }
+
+    private UserDetails loadFromDatabase(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
         return new CustomUserDetails(user);
@@ -1,5 +1,6 @@
 package com.example.bookapp.security.jwt;
 
+import com.example.bookapp.security.CustomUserDetails;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -7,6 +8,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -16,21 +18,37 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String BEARER_PREFIX = "Bearer ";
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final TokenRevocationList tokenRevocationList;
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
+    @Value("${jwt.stateless.recheck-window:30s}")
+    private Duration recheckWindow;
+
+    private final LongAdder[] rejections = newCounters();
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String uri = request.getRequestURI();
         return uri.equals("/api/v1/users/register")
                 || uri.equals("/api/v1/auth/login")
+                || uri.equals("/api/v1/auth/refresh")
                 || uri.startsWith("/swagger-ui")
                 || uri.startsWith("/v3/api-docs")
                 || uri.equals("/swagger-ui.html");
@@ -43,56 +61,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
+        final JwtClaims claims;
 
         if (authHeader == null) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType(JSON_CONTENT_TYPE);
-            response.getWriter().write("{\"error\": \"Token is required\"}");
+            reject(response, TokenRejection.MISSING);
             return;
         }
 
-        if (!authHeader.startsWith("Bearer ")) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType(JSON_CONTENT_TYPE);
-            response.getWriter().write("{\"error\": \"Invalid or malformed token\"}");
+        if (!authHeader.startsWith(BEARER_PREFIX)) {
+            reject(response, TokenRejection.NOT_BEARER);
             return;
         }
 
-        jwt = authHeader.substring(7);
+        // Garbage and expired tokens are turned away before any parsing or signature work
+        TokenRejection rejection = JwtPrefilter.check(authHeader, BEARER_PREFIX.length(), System.currentTimeMillis());
+        if (rejection != null) {
+            reject(response, rejection);
+            return;
+        }
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            claims = jwtService.verify(authHeader.substring(BEARER_PREFIX.length()));
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType(JSON_CONTENT_TYPE);
-            response.getWriter().write("{\"error\": \"Token has expired\"}");
+            reject(response, TokenRejection.EXPIRED);
             return;
         } catch (io.jsonwebtoken.MalformedJwtException e) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType(JSON_CONTENT_TYPE);
-            response.getWriter().write("{\"error\": \"Malformed token\"}");
+            reject(response, TokenRejection.MALFORMED);
             return;
         } catch (SignatureException e) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType(JSON_CONTENT_TYPE);
-            response.getWriter().write("{\"error\": \"Invalid token signature\"}");
+            reject(response, TokenRejection.BAD_SIGNATURE);
             return;
         } catch (Exception e) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType(JSON_CONTENT_TYPE);
-            response.getWriter().write("{\"error\": \"Invalid token or unknown error\"}");
+            reject(response, TokenRejection.INVALID);
             return;
         }
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (tokenRevocationList.isRevoked(claims.tokenId())) {
+            reject(response, TokenRejection.REVOKED);
+            return;
+        }
+
+        if (claims.subject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolveUserDetails(claims);
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
-                                null,
+                                claims,
                                 userDetails.getAuthorities()
                         );
 
@@ -103,4 +118,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveUserDetails(JwtClaims claims) {
+        if (statelessEnabled
+                && claims.userId() != null
+                && !claims.expiresWithin(recheckWindow)
+                && tokenEpochRegistry.isCurrent(claims.subject(), claims.epoch())) {
+            return new CustomUserDetails(claims.toUser());
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.subject());
+        if (userDetails instanceof CustomUserDetails customUserDetails) {
+            tokenEpochRegistry.record(customUserDetails.getUser());
+        }
+        return userDetails;
+    }
+
+    /**
+     * Number of requests rejected so far for each reason.
+     */
+    public Map<TokenRejection, Long> getRejectionCounts() {
+        Map<TokenRejection, Long> counts = new EnumMap<>(TokenRejection.class);
+        for (TokenRejection reason : TokenRejection.values()) {
+            counts.put(reason, rejections[reason.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    private void reject(HttpServletResponse response, TokenRejection reason) throws IOException {
+        rejections[reason.ordinal()].increment();
+        byte[] body = reason.body();
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType(JSON_CONTENT_TYPE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[TokenRejection.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
 }
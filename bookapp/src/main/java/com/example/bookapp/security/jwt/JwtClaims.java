@@ -0,0 +1,55 @@
+package com.example.bookapp.security.jwt;
+
+import com.example.bookapp.entities.User;
+import io.jsonwebtoken.Claims;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Immutable view of an already verified token, so the claims are read once per request.
+ */
+public record JwtClaims(
+        String tokenId,
+        String subject,
+        Long userId,
+        String username,
+        Instant issuedAt,
+        Instant expiresAt,
+        long epoch
+) {
+
+    static JwtClaims from(Claims claims) {
+        Number userId = claims.get("userId", Number.class);
+        Number epoch = claims.get("epoch", Number.class);
+        return new JwtClaims(
+                claims.getId(),
+                claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                claims.get("username", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                epoch != null ? epoch.longValue() : 0L
+        );
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+
+    public boolean expiresWithin(Duration window) {
+        return expiresAt == null || expiresAt.isBefore(Instant.now().plus(window));
+    }
+
+    /**
+     * Builds a detached user holding only what the token carries. No password is available.
+     */
+    public User toUser() {
+        return User.builder()
+                .id(userId)
+                .email(subject)
+                .username(username)
+                .tokenEpoch(epoch)
+                .build();
+    }
+}
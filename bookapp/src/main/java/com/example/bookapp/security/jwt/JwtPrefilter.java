@@ -0,0 +1,126 @@
+package com.example.bookapp.security.jwt;
+
+/**
+ * Cheap structural checks run before the HMAC verification. It rejects strings that cannot be a
+ * compact JWS, segments that are not base64url, and tokens whose {@code exp} has already passed.
+ * The payload is decoded byte by byte while it is scanned, so nothing is allocated.
+ * <p>
+ * Passing the prefilter proves nothing: the token still goes through full verification.
+ */
+final class JwtPrefilter {
+
+    private static final int MAX_TOKEN_LENGTH = 8192;
+    private static final long NO_EXP = -1;
+    private static final byte[] EXP_KEY = {'"', 'e', 'x', 'p', '"'};
+
+    private JwtPrefilter() {
+    }
+
+    /**
+     * @param value  string holding the token, e.g. the whole Authorization header
+     * @param offset index where the token starts inside {@code value}
+     * @return the reason to reject the token, or {@code null} when it should be verified
+     */
+    static TokenRejection check(String value, int offset, long nowMillis) {
+        int end = value.length();
+        int length = end - offset;
+        if (length <= 0 || length > MAX_TOKEN_LENGTH) return TokenRejection.MALFORMED;
+
+        int firstDot = value.indexOf('.', offset);
+        if (firstDot <= offset) return TokenRejection.MALFORMED;
+        int secondDot = value.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || secondDot == firstDot + 1 || secondDot == end - 1) return TokenRejection.MALFORMED;
+        if (value.indexOf('.', secondDot + 1) >= 0) return TokenRejection.MALFORMED;
+
+        if (!isBase64Url(value, offset, firstDot)
+                || !isBase64Url(value, firstDot + 1, secondDot)
+                || !isBase64Url(value, secondDot + 1, end)) {
+            return TokenRejection.BAD_ENCODING;
+        }
+
+        // A JSON object always encodes to a segment starting with "ey" ('{' followed by a quote or space)
+        if (!value.startsWith("ey", offset) || !value.startsWith("ey", firstDot + 1)) {
+            return TokenRejection.MALFORMED;
+        }
+
+        long exp = readExp(value, firstDot + 1, secondDot);
+        if (exp != NO_EXP && exp * 1000 < nowMillis) return TokenRejection.EXPIRED;
+
+        return null;
+    }
+
+    private static boolean isBase64Url(String value, int from, int to) {
+        if ((to - from) % 4 == 1) return false;
+        for (int i = from; i < to; i++) {
+            if (sextet(value.charAt(i)) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the payload segment on the fly and returns the numeric value of the top level
+     * {@code "exp"} member, or {@link #NO_EXP} if it is absent or not a plain integer.
+     */
+    private static long readExp(String value, int from, int to) {
+        int buffer = 0;
+        int bits = 0;
+        int matched = 0;
+        int state = 0; // 0: looking for key, 1: expecting ':', 2: expecting digits, 3: reading digits
+        long exp = 0;
+
+        for (int i = from; i < to; i++) {
+            buffer = (buffer << 6) | sextet(value.charAt(i));
+            bits += 6;
+            if (bits < 8) continue;
+            bits -= 8;
+            int b = (buffer >> bits) & 0xFF;
+
+            switch (state) {
+                case 0 -> {
+                    if (b == EXP_KEY[matched]) {
+                        if (++matched == EXP_KEY.length) state = 1;
+                    } else {
+                        matched = b == EXP_KEY[0] ? 1 : 0;
+                    }
+                }
+                case 1 -> {
+                    if (b == ':') state = 2;
+                    else if (!isWhitespace(b)) {
+                        state = 0;
+                        matched = b == EXP_KEY[0] ? 1 : 0;
+                    }
+                }
+                case 2 -> {
+                    if (b >= '0' && b <= '9') {
+                        exp = b - '0';
+                        state = 3;
+                    } else if (!isWhitespace(b)) {
+                        return NO_EXP;
+                    }
+                }
+                default -> {
+                    if (b >= '0' && b <= '9') {
+                        if (exp > Long.MAX_VALUE / 10_000) return NO_EXP;
+                        exp = exp * 10 + (b - '0');
+                    } else {
+                        return b == '.' ? NO_EXP : exp;
+                    }
+                }
+            }
+        }
+        return state == 3 ? exp : NO_EXP;
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static int sextet(char c) {
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        if (c >= 'a' && c <= 'z') return c - 'a' + 26;
+        if (c >= '0' && c <= '9') return c - '0' + 52;
+        if (c == '-') return 62;
+        if (c == '_') return 63;
+        return -1;
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.bookapp.security.jwt;
 
+import com.example.bookapp.security.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -12,23 +14,26 @@ import io.jsonwebtoken.security.Keys;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    // Key and parser are immutable and thread-safe, so they are built once instead of per token
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final long accessTokenTtlMillis;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.access-token-ttl:3m}") Duration accessTokenTtl) {
+        this.accessTokenTtlMillis = accessTokenTtl.toMillis();
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -36,36 +41,27 @@ public class JwtService {
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 3)) // 3 min
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtlMillis))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Parses and verifies the token exactly once. Signature and expiration are checked by the parser,
+     * so any jjwt exception (expired, malformed, bad signature...) propagates to the caller.
+     */
+    public JwtClaims verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return JwtClaims.from(claims);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public boolean isTokenValid(JwtClaims claims, UserDetails userDetails) {
+        if (userDetails instanceof CustomUserDetails customUserDetails
+                && customUserDetails.getUser().getTokenEpoch() != claims.epoch()) {
+            return false;
+        }
+        return claims.subject().equals(userDetails.getUsername()) && !claims.isExpired();
     }
 }
@@ -0,0 +1,76 @@
+package com.example.bookapp.security.jwt;
+
+import com.example.bookapp.components.BoundedCache;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.security.UserDetailsCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Token epoch of recently seen users (keyed by email), as last read from the {@code token_epoch} column
+ * through the user cache. Stateless authentication only trusts a token's claims when its epoch matches
+ * the one recorded here.
+ * <p>
+ * The epoch itself lives in the database. Entries here are bounded and expire after {@code epoch-ttl},
+ * so a node that did not make the change picks up a new epoch once both this entry and the cached user
+ * have expired; that delay is the longest a token from an older epoch is still trusted.
+ */
+@Component
+public class TokenEpochRegistry {
+
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final BoundedCache<String, Long> epochs;
+
+    public TokenEpochRegistry(UserRepository userRepository,
+                              UserDetailsCache userDetailsCache,
+                              @Value("${jwt.stateless.epoch-cache.max-size:10000}") int maxSize,
+                              @Value("${jwt.stateless.epoch-cache.ttl:60s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.epochs = new BoundedCache<>(maxSize, ttl);
+    }
+
+    public boolean isCurrent(String email, long epoch) {
+        Long known = epochs.get(email);
+        return known != null && known == epoch;
+    }
+
+    public void record(User user) {
+        epochs.put(user.getEmail(), user.getTokenEpoch());
+    }
+
+    /**
+     * Invalidates every token issued to the user so far. The new epoch is written to the database and
+     * the local entries are dropped once the transaction commits.
+     */
+    @Transactional
+    public void advance(User user) {
+        userRepository.advanceTokenEpoch(user.getId());
+        user.setTokenEpoch(user.getTokenEpoch() + 1);
+
+        String email = user.getEmail();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            forget(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forget(email);
+            }
+        });
+    }
+
+    // The bulk UPDATE bypasses UserCacheInvalidationListener, so the cached user goes too
+    private void forget(String email) {
+        epochs.invalidate(email);
+        userDetailsCache.invalidate(email);
+    }
+}
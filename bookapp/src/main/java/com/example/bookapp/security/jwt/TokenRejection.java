@@ -0,0 +1,29 @@
+package com.example.bookapp.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reasons a request is turned away by {@link JwtAuthenticationFilter}. Each response body is encoded
+ * once, so rejecting a token never builds a string.
+ */
+public enum TokenRejection {
+
+    MISSING("Token is required"),
+    NOT_BEARER("Invalid or malformed token"),
+    MALFORMED("Malformed token"),
+    BAD_ENCODING("Malformed token"),
+    EXPIRED("Token has expired"),
+    BAD_SIGNATURE("Invalid token signature"),
+    REVOKED("Token has been revoked"),
+    INVALID("Invalid token or unknown error");
+
+    private final byte[] body;
+
+    TokenRejection(String message) {
+        this.body = ("{\"error\": \"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    byte[] body() {
+        return body;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bookapp.security.jwt;
+
+import com.example.bookapp.components.BloomFilter;
+import com.example.bookapp.components.BoundedCache;
+import com.example.bookapp.entities.RevokedToken;
+import com.example.bookapp.repositories.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Revoked access tokens, checked on every request without touching the database in the common case.
+ * <p>
+ * Revocations are persisted in {@code revoked_tokens}. Each node keeps only a Bloom filter of the
+ * unexpired ones, which answers the common "not revoked" case. A hit is confirmed against the table,
+ * so a false positive never rejects a valid token; confirmed answers are kept in a small bounded cache,
+ * since a hit is mostly a revoked token being replayed. The filter is fed incrementally from the table
+ * and rebuilt from it when expired rows are pruned.
+ */
+@Component
+public class TokenRevocationList {
+
+    // Rows committed by other nodes may carry a revoked_at slightly older than the last sync
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedInsertions;
+    private final double falsePositiveProbability;
+    private final BoundedCache<String, Boolean> confirmed;
+
+    private volatile BloomFilter bloomFilter;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               @Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions,
+                               @Value("${jwt.revocation.false-positive-probability:0.01}") double falsePositiveProbability,
+                               @Value("${jwt.revocation.confirm-cache.max-size:10000}") int confirmCacheSize,
+                               @Value("${jwt.revocation.confirm-cache.ttl:5m}") Duration confirmCacheTtl) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.confirmed = new BoundedCache<>(confirmCacheSize, confirmCacheTtl);
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) return false;
+        return confirmed.getOrLoad(jti, revokedTokenRepository::existsById);
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (jti == null || expiresAt == null || expiresAt.isBefore(now)) return;
+
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt, now));
+        remember(jti);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:PT5S}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = lastSync.equals(Instant.EPOCH) ? Instant.EPOCH : lastSync.minus(SYNC_OVERLAP);
+        for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            remember(token.getJti());
+        }
+        lastSync = now;
+    }
+
+    /**
+     * Deletes expired rows and rebuilds the filter from the remaining ones, so it does not fill up with
+     * tokens that can no longer be presented. Access tokens are short lived, so this reads few rows.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:PT1M}")
+    @Transactional
+    public void prune() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        rebuildBloomFilter(now);
+    }
+
+    public BoundedCache.Stats confirmationStats() {
+        return confirmed.stats();
+    }
+
+    // Writers share one lock so a rebuild never drops a value added while it was reading the table
+    private synchronized void remember(String jti) {
+        bloomFilter.add(jti);
+        confirmed.put(jti, true);
+    }
+
+    private synchronized void rebuildBloomFilter(Instant now) {
+        List<String> unexpired = revokedTokenRepository.findUnexpiredJtis(now);
+        BloomFilter fresh = new BloomFilter(Math.max(expectedInsertions, unexpired.size()), falsePositiveProbability);
+        unexpired.forEach(fresh::add);
+        bloomFilter = fresh;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bookapp.security.password;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+/**
+ * Picks the highest BCrypt cost whose hash time on this host stays within a target latency.
+ * Each extra cost unit doubles the work, so the search stops at the first cost above the target.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final int MAX_COST = 16;
+    private static final String SAMPLE_PASSWORD = "calibration-Pa55word";
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration targetLatency, int minCost) {
+        // Warm up so the first measurement is not paying for class loading and JIT
+        BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(4));
+
+        int chosen = minCost;
+        for (int cost = minCost; cost <= MAX_COST; cost++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw(SAMPLE_PASSWORD, BCrypt.gensalt(cost));
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            if (elapsed.compareTo(targetLatency) > 0) break;
+            chosen = cost;
+        }
+
+        log.info("BCrypt cost calibrated to {} for a target latency of {} ms", chosen, targetLatency.toMillis());
+        return chosen;
+    }
+}
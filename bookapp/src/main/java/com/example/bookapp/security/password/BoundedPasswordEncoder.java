@@ -0,0 +1,109 @@
+package com.example.bookapp.security.password;
+
+import com.example.bookapp.exceptions.TooManyRequestsException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt on a dedicated pool so that a login storm cannot take every request thread and core.
+ * At most {@code maxConcurrent} hashes run at once and at most {@code queueCapacity} wait; anything
+ * beyond that is rejected immediately with {@link TooManyRequestsException} (HTTP 429).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+
+    public BoundedPasswordEncoder(int strength, int maxConcurrent, int queueCapacity) {
+        this(new BCryptPasswordEncoder(strength), strength, maxConcurrent, queueCapacity);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int maxConcurrent, int queueCapacity) {
+        this.delegate = delegate;
+        this.strength = strength;
+        this.executor = new ThreadPoolExecutor(
+                maxConcurrent, maxConcurrent,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * A stored hash is rehashed on the next successful login only when its cost is below the current
+     * one. Never downwards: each node calibrates its own cost, and nodes on different hardware would
+     * otherwise rewrite the same password back and forth.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getQueuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("Server is busy, please try again later", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException("Error hashing password", e.getCause());
+        }
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.bookapp.security.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket throttling for the routes listed under {@code rate-limit.routes}.
+ * <p>
+ * This filter runs before JwtAuthenticationFilter and applies the routes keyed by IP, so a flood on
+ * them is turned away before any token work. Routes keyed by user need the verified principal and are
+ * applied by {@link #userStage()}, which runs right after JwtAuthenticationFilter. Both share the same
+ * buckets, and each request is charged only by the first route it matches.
+ * <p>
+ * The client IP is {@code request.getRemoteAddr()}. Behind a proxy or load balancer it is the address
+ * resolved from {@code X-Forwarded-For} by {@code server.forward-headers-strategy}, which only trusts
+ * the header from {@code server.tomcat.remoteip.internal-proxies}.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"error\": \"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimitProperties properties;
+    private final StripedBucketMap buckets;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, LongAdder> rejected = new LinkedHashMap<>();
+    private final UserStage userStage = new UserStage();
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.buckets = new StripedBucketMap(properties.getMaxBuckets(), properties.getStripes());
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            rejected.put(route.getName(), new LongAdder());
+        }
+    }
+
+    /**
+     * The filter for routes keyed by user, to be placed after JwtAuthenticationFilter.
+     */
+    public OncePerRequestFilter userStage() {
+        return userStage;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        limit(RateLimitProperties.KeyType.IP, request, response, filterChain);
+    }
+
+    private void limit(RateLimitProperties.KeyType stage,
+                       HttpServletRequest request,
+                       HttpServletResponse response,
+                       FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RateLimitProperties.Route route = findRoute(request);
+        if (route == null || route.getKey() != stage) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        String key = route.getName() + ':' + clientKey(route, request);
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(
+                route.getCapacity(), route.getRefillTokens(), route.getRefillPeriod().toNanos(), now));
+
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            rejected.get(route.getName()).increment();
+            response.setStatus(429);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1)));
+            response.setContentType("application/json");
+            response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+            response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    public int getActiveBuckets() {
+        return buckets.size();
+    }
+
+    public long getRejectedCount() {
+        return rejected.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rate.limit.buckets", buckets, StripedBucketMap::size).register(registry);
+        rejected.forEach((route, count) -> FunctionCounter.builder("rate.limit.rejected", count, LongAdder::sum)
+                .tag("route", route).register(registry));
+    }
+
+    private RateLimitProperties.Route findRoute(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String method = request.getMethod();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            boolean methodMatches = route.getMethods().isEmpty()
+                    || route.getMethods().stream().anyMatch(method::equalsIgnoreCase);
+            if (methodMatches && pathMatcher.match(route.getPath(), uri)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(RateLimitProperties.Route route, HttpServletRequest request) {
+        if (route.getKey() == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null
+                    && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "u:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private final class UserStage extends OncePerRequestFilter {
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return !properties.isEnabled();
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request,
+                                        HttpServletResponse response,
+                                        FilterChain filterChain)
+                throws ServletException, IOException {
+            limit(RateLimitProperties.KeyType.USER, request, response, filterChain);
+        }
+    }
+}
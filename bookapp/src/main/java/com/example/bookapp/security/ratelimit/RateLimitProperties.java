@@ -0,0 +1,48 @@
+package com.example.bookapp.security.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on buckets kept in memory across all routes; the least recently used are dropped.
+     */
+    private int maxBuckets = 100_000;
+
+    private int stripes = 64;
+
+    /**
+     * Evaluated in order, the first route matching the request applies.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        private String name;
+        private String path;
+        private List<String> methods = new ArrayList<>();
+        private KeyType key = KeyType.IP;
+        private long capacity;
+        private long refillTokens;
+        private Duration refillPeriod;
+    }
+
+    public enum KeyType {
+        IP,
+        /** Authenticated user, or the client IP when the request is anonymous. */
+        USER
+    }
+}
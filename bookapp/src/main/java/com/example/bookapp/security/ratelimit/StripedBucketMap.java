@@ -0,0 +1,56 @@
+package com.example.bookapp.security.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Buckets spread over independently locked stripes so concurrent requests for different keys rarely
+ * contend. Each stripe is an access ordered map capped at its share of {@code maxBuckets}: when full,
+ * the bucket idle for longest is dropped, which at worst hands that client a fresh bucket.
+ */
+class StripedBucketMap {
+
+    private final Stripe[] stripes;
+
+    StripedBucketMap(int maxBuckets, int stripeCount) {
+        int count = Math.max(1, stripeCount);
+        int perStripe = Math.max(1, maxBuckets / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    TokenBucket get(String key, Function<String, TokenBucket> factory) {
+        Stripe stripe = stripes[Math.floorMod(key.hashCode() ^ (key.hashCode() >>> 16), stripes.length)];
+        synchronized (stripe) {
+            return stripe.computeIfAbsent(key, factory);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private static class Stripe extends LinkedHashMap<String, TokenBucket> {
+
+        private final int maxSize;
+
+        Stripe(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
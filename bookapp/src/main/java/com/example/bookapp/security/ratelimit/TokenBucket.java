@@ -0,0 +1,33 @@
+package com.example.bookapp.security.ratelimit;
+
+/**
+ * Classic token bucket refilled continuously at {@code refillTokens} per {@code refillPeriodNanos}.
+ */
+class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(long capacity, long refillTokens, long refillPeriodNanos, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) refillTokens / refillPeriodNanos;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    synchronized long tryConsume(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = nowNanos;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
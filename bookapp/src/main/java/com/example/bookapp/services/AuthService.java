@@ -1,8 +1,16 @@
 package com.example.bookapp.services;
 
 import com.example.bookapp.dto.input.LoginRequestDTO;
+import com.example.bookapp.dto.input.RefreshTokenRequestDTO;
 import com.example.bookapp.dto.output.LoginResponseDTO;
+import com.example.bookapp.security.jwt.JwtClaims;
 
 public interface AuthService {
     LoginResponseDTO login(LoginRequestDTO request);
+
+    LoginResponseDTO refresh(RefreshTokenRequestDTO request);
+
+    void logout(JwtClaims claims, String refreshToken);
+
+    void logoutAll(JwtClaims claims);
 }
@@ -0,0 +1,17 @@
+package com.example.bookapp.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+
+    enum Format { CSV, JSON_LINES }
+
+    /**
+     * Writes every book of the user to {@code out}, oldest first. Rows go out as they are read, so
+     * the caller's stream must not buffer the whole body either.
+     */
+    void export(Long userId, Format format, OutputStream out) throws IOException;
+
+    void checkUserExists(Long userId);
+}
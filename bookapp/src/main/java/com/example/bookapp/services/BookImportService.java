@@ -0,0 +1,12 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.dto.output.BookImportReportDTO;
+
+import java.io.InputStream;
+
+public interface BookImportService {
+
+    enum Format { CSV, JSON_LINES }
+
+    BookImportReportDTO importBooks(Long userId, InputStream body, Format format);
+}
@@ -0,0 +1,10 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.dto.output.BookSearchResultDTO;
+
+public interface BookSearchService {
+
+    BookSearchResultDTO search(Long userId, String query, int size);
+
+    void rebuild(Long userId);
+}
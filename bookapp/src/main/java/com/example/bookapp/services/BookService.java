@@ -1,12 +1,19 @@
 package com.example.bookapp.services;
 
+import com.example.bookapp.dto.input.BookFilterDTO;
 import com.example.bookapp.dto.input.BookRegisterDTO;
 import com.example.bookapp.dto.input.BookUpdateDTO;
+import com.example.bookapp.dto.output.BookCursorPageDTO;
+import com.example.bookapp.dto.output.BookLookupResultDTO;
 import com.example.bookapp.dto.output.BookResponseDTO;
+import com.example.bookapp.dto.output.BookSuggestionDTO;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 public interface BookService {
 
     BookResponseDTO register(BookRegisterDTO dto);
@@ -15,12 +22,20 @@ public interface BookService {
 
     void deleteByIsbn(String isbn, Long userId);
 
-    Page<BookResponseDTO> findPaginated(Long userId, int page, int size);
+    Page<BookResponseDTO> findPaginated(Long userId, int page, int size, boolean includeSynopsis);
+
+    BookCursorPageDTO findByCursor(Long userId, String cursor, int size, boolean includeTotal, boolean includeSynopsis);
+
+    Page<BookResponseDTO> findByGenreIdAndUserId(Long genreId, Long userId, int page, int size, boolean includeSynopsis);
 
-    Page<BookResponseDTO> findByGenreIdAndUserId(Long genreId, Long userId, int page, int size);
+    Slice<BookResponseDTO> findByFilter(BookFilterDTO filter);
 
     BookResponseDTO findByIsbnAndUserId(String isbn, Long userId);
 
+    BookLookupResultDTO findByIsbnsAndUserId(List<String> isbns, Long userId);
+
+    List<BookSuggestionDTO> suggestTitles(Long userId, String prefix, int limit);
+
     BookResponseDTO updateCoverImage(String isbn, Long userId, MultipartFile file);
 
     Resource getCoverImageForUser(Long userId, String path);
@@ -1,7 +1,9 @@
 package com.example.bookapp.services;
 
+import com.example.bookapp.components.GenreCatalogCache;
 import com.example.bookapp.dto.input.GenreRegisterDTO;
 import com.example.bookapp.dto.output.GenreResponseDTO;
+import com.example.bookapp.dto.output.GenreStatsDTO;
 
 import java.util.List;
 
@@ -10,4 +12,8 @@ public interface GenreService {
     GenreResponseDTO register(GenreRegisterDTO dto);
 
     List<GenreResponseDTO> findAllByUserId(Long userId);
+
+    GenreCatalogCache.Catalog findCatalogByUserId(Long userId);
+
+    List<GenreStatsDTO> findStatsByUserId(Long userId);
 }
@@ -0,0 +1,17 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.entities.User;
+
+public interface RefreshTokenService {
+
+    String issue(User user);
+
+    Rotation rotate(String refreshToken);
+
+    void revoke(String refreshToken);
+
+    void revokeAll(Long userId);
+
+    record Rotation(User user, String refreshToken) {
+    }
+}
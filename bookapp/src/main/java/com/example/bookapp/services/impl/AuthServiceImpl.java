@@ -1,15 +1,24 @@
 package com.example.bookapp.services.impl;
 
 import com.example.bookapp.dto.input.LoginRequestDTO;
+import com.example.bookapp.dto.input.RefreshTokenRequestDTO;
 import com.example.bookapp.dto.output.LoginResponseDTO;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.exceptions.InvalidTokenException;
 import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.security.CustomUserDetails;
+import com.example.bookapp.security.jwt.JwtClaims;
 import com.example.bookapp.security.jwt.JwtService;
+import com.example.bookapp.security.jwt.TokenEpochRegistry;
+import com.example.bookapp.security.jwt.TokenRevocationList;
 import com.example.bookapp.services.AuthService;
+import com.example.bookapp.services.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,24 +29,58 @@ public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
+    private final TokenEpochRegistry tokenEpochRegistry;
     private final UserRepository userRepository;
 
     @Override
     public LoginResponseDTO login(LoginRequestDTO request) {
         var authToken = new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword());
-        authenticationManager.authenticate(authToken);
+        Authentication authentication = authenticationManager.authenticate(authToken);
 
-        var user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The provider already loaded the user to check the password, so it is reused to sign the token
+        var user = ((CustomUserDetails) authentication.getPrincipal()).getUser();
 
+        return new LoginResponseDTO(generateAccessToken(user), refreshTokenService.issue(user));
+    }
+
+    @Override
+    public LoginResponseDTO refresh(RefreshTokenRequestDTO request) {
+        // One indexed lookup and one HMAC: the password is not checked again
+        var rotation = refreshTokenService.rotate(request.getRefreshToken());
+        return new LoginResponseDTO(generateAccessToken(rotation.user()), rotation.refreshToken());
+    }
+
+    @Override
+    public void logout(JwtClaims claims, String refreshToken) {
+        tokenRevocationList.revoke(claims.tokenId(), claims.expiresAt());
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    /**
+     * Ends every session of the user: advancing the token epoch invalidates all access tokens issued so
+     * far without listing them, and every refresh token family is revoked.
+     */
+    @Override
+    @Transactional
+    public void logoutAll(JwtClaims claims) {
+        User user = userRepository.findByEmail(claims.subject())
+                .orElseThrow(() -> new InvalidTokenException("Invalid token"));
+        tokenEpochRegistry.advance(user);
+        refreshTokenService.revokeAll(user.getId());
+        // Stateless nodes may trust the epoch they saw for a while; the current token is refused right away
+        tokenRevocationList.revoke(claims.tokenId(), claims.expiresAt());
+    }
+
+    private String generateAccessToken(User user) {
         Map<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("userId", user.getId());
         extraClaims.put("username", user.getUsername());
+        extraClaims.put("epoch", user.getTokenEpoch());
 
-        var userDetails = userDetailsService.loadUserByUsername(user.getEmail());
-        var token = jwtService.generateToken(extraClaims, userDetails);
-
-        return new LoginResponseDTO(token);
+        return jwtService.generateToken(extraClaims, new CustomUserDetails(user));
     }
 }
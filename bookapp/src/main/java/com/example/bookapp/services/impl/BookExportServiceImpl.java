@@ -0,0 +1,148 @@
+package com.example.bookapp.services.impl;
+
+import com.example.bookapp.exceptions.ResourceNotFoundException;
+import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.services.BookExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Reads the library with plain JDBC on a forward-only, read-only result set and a fixed fetch size, and
+ * writes each row as soon as it is read. No entities or DTOs are built, so heap use stays flat however
+ * many books the user has.
+ */
+@Service
+public class BookExportServiceImpl implements BookExportService {
+
+    // Same column names as the bulk import accepts, so an export can be imported back as is
+    private static final String CSV_HEADER = "isbn,title,genre,publishedDate,synopsis,coverImagePath,createdAt";
+
+    private static final String EXPORT_SQL = """
+            SELECT b.isbn, b.title, g.name, b.published_date, b.synopsis, b.cover_image_path, b.created_at
+            FROM books b
+            JOIN genres g ON g.id = b.genre_id
+            WHERE b.user_id = ?
+            ORDER BY b.created_at, b.isbn""";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public BookExportServiceImpl(UserRepository userRepository,
+                                 DataSource dataSource,
+                                 ObjectMapper objectMapper,
+                                 @Value("${books.export.fetch-size:500}") int fetchSize) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+    }
+
+    @Override
+    public void export(Long userId, Format format, OutputStream out) throws IOException {
+        try {
+            if (format == Format.CSV) {
+                exportCsv(userId, out);
+            } else {
+                exportJsonLines(userId, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportJsonLines(Long userId, OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+            jdbcTemplate.query(EXPORT_SQL, rs -> {
+                try {
+                    json.writeStartObject();
+                    json.writeStringField("isbn", rs.getString(1));
+                    json.writeStringField("title", rs.getString(2));
+                    json.writeStringField("genre", rs.getString(3));
+                    json.writeStringField("publishedDate", date(rs));
+                    json.writeStringField("synopsis", rs.getString(5));
+                    json.writeStringField("coverImagePath", rs.getString(6));
+                    json.writeStringField("createdAt", createdAt(rs));
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, userId);
+        }
+    }
+
+    private void exportCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        jdbcTemplate.query(EXPORT_SQL, rs -> {
+            try {
+                writeCsvField(writer, rs.getString(1));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(2));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(3));
+                writer.write(',');
+                writeCsvField(writer, date(rs));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(5));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(6));
+                writer.write(',');
+                writeCsvField(writer, createdAt(rs));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, userId);
+        writer.flush();
+    }
+
+    private static String date(ResultSet rs) throws SQLException {
+        java.sql.Date date = rs.getDate(4);
+        return date == null ? null : date.toLocalDate().toString();
+    }
+
+    private static String createdAt(ResultSet rs) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(7);
+        return timestamp == null ? null : timestamp.toLocalDateTime().toString();
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,441 @@
+package com.example.bookapp.services.impl;
+
+import com.example.bookapp.components.CsvRecordReader;
+import com.example.bookapp.dto.input.BookImportRowDTO;
+import com.example.bookapp.dto.input.BookRegisterDTO;
+import com.example.bookapp.dto.output.BookImportReportDTO;
+import com.example.bookapp.dto.output.BookImportRowResultDTO;
+import com.example.bookapp.dto.output.BookImportRowResultDTO.Status;
+import com.example.bookapp.entities.Book;
+import com.example.bookapp.entities.Genre;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.events.BookChangedEvent;
+import com.example.bookapp.exceptions.ResourceNotFoundException;
+import com.example.bookapp.repositories.BookRepository;
+import com.example.bookapp.repositories.GenreRepository;
+import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.services.BookImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the request body row by row: each row is parsed, validated against {@link BookRegisterDTO}
+ * and queued; every {@code batch-size} rows the queue is written in its own transaction with JDBC
+ * batching, then the persistence context is cleared. Memory therefore depends on the batch size, the
+ * line length limit and the per-row report, never on the whole file.
+ * <p>
+ * A row that cannot be read is reported as INVALID instead of failing the request, since earlier chunks
+ * are already committed by then; a chunk the database rejects is retried one row per transaction.
+ */
+@Slf4j
+@Service
+public class BookImportServiceImpl implements BookImportService {
+
+    // coverImagePath and createdAt are accepted, and ignored, so a CSV export can be imported back
+    private static final List<String> CSV_COLUMNS = List.of(
+            "isbn", "title", "genre", "genreid", "publisheddate", "synopsis", "coverimagepath", "createdat");
+
+    private final BookRepository bookRepository;
+    private final GenreRepository genreRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxFieldLength;
+    private final int maxLineLength;
+
+    public BookImportServiceImpl(BookRepository bookRepository,
+                                 GenreRepository genreRepository,
+                                 UserRepository userRepository,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${books.import.batch-size:500}") int batchSize,
+                                 @Value("${books.import.max-field-length:1000}") int maxFieldLength,
+                                 @Value("${books.import.max-line-length:4000}") int maxLineLength) {
+        this.bookRepository = bookRepository;
+        this.genreRepository = genreRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        // Bounded by the 2100 parameter limit of SQL Server, since findExistingIsbns binds one per row
+        this.batchSize = Math.min(Math.max(1, batchSize), 2000);
+        this.maxFieldLength = maxFieldLength;
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public BookImportReportDTO importBooks(Long userId, InputStream body, Format format) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        long start = System.nanoTime();
+        Import run = new Import(userId, genreRepository.findByUserId(userId));
+
+        try (RowSource rows = format == Format.CSV ? new CsvRows(body) : new JsonLines(body)) {
+            ParsedRow row;
+            while ((row = rows.next()) != null) {
+                run.accept(row);
+            }
+        } catch (IOException e) {
+            // The body stopped being readable, e.g. a dropped connection: the rows already read are still written
+            log.warn("Import for user {} stopped after line {}: {}", userId, run.lastLine, e.getMessage());
+            run.reject(run.lastLine + 1, null, Status.INVALID, "Unreadable input: " + e.getMessage());
+        }
+        run.flush();
+
+        long durationNanos = Math.max(1, System.nanoTime() - start);
+        List<BookImportRowResultDTO> results = run.results;
+        results.sort(Comparator.comparingLong(BookImportRowResultDTO::getLine));
+        int created = (int) results.stream().filter(r -> r.getStatus() == Status.CREATED).count();
+        double rowsPerSecond = results.size() * 1_000_000_000d / durationNanos;
+
+        log.info("Imported {} of {} rows for user {} in {} ms ({} rows/s)",
+                created, results.size(), userId, durationNanos / 1_000_000, Math.round(rowsPerSecond));
+        return new BookImportReportDTO(results.size(), created, results.size() - created,
+                durationNanos / 1_000_000, rowsPerSecond, results);
+    }
+
+    private class Import {
+
+        private final Long userId;
+        // The user's genres, loaded once so rows can refer to them by id or name without a query each
+        private final Set<Long> genreIds = new HashSet<>();
+        private final Map<String, Long> genreIdsByName = new HashMap<>();
+        private final Set<String> seenIsbns = new HashSet<>();
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final List<BookImportRowResultDTO> results = new ArrayList<>();
+        private long lastLine;
+
+        Import(Long userId, List<Genre> genres) {
+            this.userId = userId;
+            for (Genre genre : genres) {
+                genreIds.add(genre.getId());
+                genreIdsByName.put(genre.getName().toLowerCase(Locale.ROOT), genre.getId());
+            }
+        }
+
+        void accept(ParsedRow parsed) {
+            lastLine = parsed.line();
+            if (parsed.error() != null) {
+                reject(parsed.line(), parsed.row() == null ? null : parsed.row().getIsbn(), Status.INVALID, parsed.error());
+                return;
+            }
+
+            BookImportRowDTO row = parsed.row();
+            BookRegisterDTO dto = new BookRegisterDTO();
+            dto.setIsbn(trim(row.getIsbn()));
+            dto.setTitle(trim(row.getTitle()));
+            dto.setSynopsis(trim(row.getSynopsis()));
+            dto.setUserId(userId);
+
+            String error = resolveGenre(row, dto);
+            if (error == null) error = parseDate(row.getPublishedDate(), dto);
+            if (error == null) error = validate(dto);
+            if (error != null) {
+                reject(parsed.line(), dto.getIsbn(), Status.INVALID, error);
+                return;
+            }
+            if (!seenIsbns.add(dto.getIsbn())) {
+                reject(parsed.line(), dto.getIsbn(), Status.DUPLICATE, "ISBN repeated earlier in the file");
+                return;
+            }
+
+            pending.add(new PendingRow(parsed.line(), dto));
+            if (pending.size() >= batchSize) flush();
+        }
+
+        void flush() {
+            if (pending.isEmpty()) return;
+            List<PendingRow> chunk = List.copyOf(pending);
+            pending.clear();
+
+            try {
+                results.addAll(transactionTemplate.execute(status -> write(chunk)));
+            } catch (RuntimeException e) {
+                // Typically an ISBN inserted by someone else since findExistingIsbns: only that row should fail
+                log.warn("Import chunk of {} rows failed, retrying row by row: {}", chunk.size(), e.getMessage());
+                for (PendingRow row : chunk) {
+                    retry(row);
+                }
+            }
+        }
+
+        private void retry(PendingRow row) {
+            try {
+                results.addAll(transactionTemplate.execute(status -> write(List.of(row))));
+            } catch (RuntimeException e) {
+                if (isUniqueViolation(e)) {
+                    reject(row.line(), row.dto().getIsbn(), Status.DUPLICATE, "A book with this ISBN already exists");
+                } else {
+                    log.warn("Import row on line {} failed: {}", row.line(), e.getMessage());
+                    reject(row.line(), row.dto().getIsbn(), Status.FAILED, "Rejected by the database");
+                }
+            }
+        }
+
+        private List<BookImportRowResultDTO> write(List<PendingRow> chunk) {
+            Session session = entityManager.unwrap(Session.class);
+            Integer previousBatchSize = session.getJdbcBatchSize();
+            session.setJdbcBatchSize(batchSize);
+            try {
+                // One query per chunk instead of one existsByIsbn per row
+                Set<String> existing = bookRepository.findExistingIsbns(
+                        chunk.stream().map(row -> row.dto().getIsbn()).collect(Collectors.toSet()));
+
+                User user = entityManager.getReference(User.class, userId);
+                List<BookImportRowResultDTO> written = new ArrayList<>(chunk.size());
+                for (PendingRow row : chunk) {
+                    BookRegisterDTO dto = row.dto();
+                    if (existing.contains(dto.getIsbn())) {
+                        written.add(new BookImportRowResultDTO(row.line(), dto.getIsbn(), Status.DUPLICATE,
+                                "A book with this ISBN already exists"));
+                        continue;
+                    }
+
+                    entityManager.persist(Book.builder()
+                            .isbn(dto.getIsbn())
+                            .title(dto.getTitle())
+                            .genre(entityManager.getReference(Genre.class, dto.getGenreId()))
+                            .publishedDate(dto.getPublishedDate())
+                            .synopsis(dto.getSynopsis())
+                            .user(user)
+                            .build());
+                    eventPublisher.publishEvent(BookChangedEvent.created(
+                            userId, dto.getIsbn(), dto.getGenreId(), dto.getTitle(), dto.getSynopsis()));
+                    written.add(new BookImportRowResultDTO(row.line(), dto.getIsbn(), Status.CREATED, null));
+                }
+
+                entityManager.flush();
+                entityManager.clear();
+                return written;
+            } finally {
+                session.setJdbcBatchSize(previousBatchSize);
+            }
+        }
+
+        private String resolveGenre(BookImportRowDTO row, BookRegisterDTO dto) {
+            if (row.getGenreId() != null) {
+                if (!genreIds.contains(row.getGenreId())) return "Genre not found: " + row.getGenreId();
+                dto.setGenreId(row.getGenreId());
+                return null;
+            }
+            String name = trim(row.getGenre());
+            if (name == null || name.isEmpty()) return "genre: a genre name or genreId is required";
+            Long id = genreIdsByName.get(name.toLowerCase(Locale.ROOT));
+            if (id == null) return "Genre not found: " + name;
+            dto.setGenreId(id);
+            return null;
+        }
+
+        private String parseDate(String value, BookRegisterDTO dto) {
+            if (value == null || value.isBlank()) return null;
+            try {
+                dto.setPublishedDate(LocalDate.parse(value.trim()));
+                return null;
+            } catch (DateTimeParseException e) {
+                return "publishedDate: expected yyyy-MM-dd";
+            }
+        }
+
+        private String validate(BookRegisterDTO dto) {
+            Set<ConstraintViolation<BookRegisterDTO>> violations = validator.validate(dto);
+            if (violations.isEmpty()) return null;
+            return violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        private void reject(long line, String isbn, Status status, String message) {
+            results.add(new BookImportRowResultDTO(line, isbn, status, message));
+        }
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    // Raised by the explicit flush, so it reaches here untranslated
+    private static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
+    }
+
+    private record ParsedRow(long line, BookImportRowDTO row, String error) {
+    }
+
+    private record PendingRow(long line, BookRegisterDTO dto) {
+    }
+
+    private interface RowSource extends AutoCloseable {
+
+        ParsedRow next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * CSV with a header row naming the columns, in any order: isbn, title, genre or genreId,
+     * publishedDate, synopsis.
+     */
+    private final class CsvRows implements RowSource {
+
+        private final CsvRecordReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        CsvRows(InputStream body) throws IOException {
+            this.reader = new CsvRecordReader(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                    maxFieldLength, maxLineLength);
+            List<String> header;
+            try {
+                header = reader.next();
+            } catch (CsvRecordReader.MalformedRecordException e) {
+                throw new IllegalArgumentException("Malformed CSV header: " + e.getMessage());
+            }
+            if (header == null) return;
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+                if (!CSV_COLUMNS.contains(name)) {
+                    throw new IllegalArgumentException("Unknown CSV column: " + header.get(i));
+                }
+                columns.put(name, i);
+            }
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            List<String> fields;
+            try {
+                fields = reader.next();
+            } catch (CsvRecordReader.MalformedRecordException e) {
+                return new ParsedRow(e.getLine(), null, e.getMessage());
+            }
+            if (fields == null) return null;
+            long line = reader.getRecordLine();
+            if (fields.size() != columns.size()) {
+                return new ParsedRow(line, null, "Expected " + columns.size() + " fields but found " + fields.size());
+            }
+
+            BookImportRowDTO row = new BookImportRowDTO();
+            row.setIsbn(field(fields, "isbn"));
+            row.setTitle(field(fields, "title"));
+            row.setGenre(field(fields, "genre"));
+            row.setPublishedDate(field(fields, "publisheddate"));
+            row.setSynopsis(field(fields, "synopsis"));
+            String genreId = field(fields, "genreid");
+            if (genreId != null && !genreId.isBlank()) {
+                try {
+                    row.setGenreId(Long.parseLong(genreId.trim()));
+                } catch (NumberFormatException e) {
+                    return new ParsedRow(line, row, "genreId: must be a number");
+                }
+            }
+            return new ParsedRow(line, row, null);
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            return index == null ? null : fields.get(index);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * One JSON object per line, with the same field names as {@link BookImportRowDTO}.
+     */
+    private final class JsonLines implements RowSource {
+
+        private final BufferedReader reader;
+        private final StringBuilder text = new StringBuilder();
+        private long line;
+
+        JsonLines(InputStream body) {
+            this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            while (true) {
+                long length = readLine();
+                if (length < 0) return null;
+                if (length > maxLineLength) {
+                    return new ParsedRow(line, null, "Line longer than " + maxLineLength + " characters");
+                }
+                if (text.toString().isBlank()) continue;
+
+                try {
+                    return new ParsedRow(line, objectMapper.readValue(text.toString(), BookImportRowDTO.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+
+        // Like BufferedReader.readLine, but keeps no more than maxLineLength characters of the line;
+        // returns its full length, or -1 at the end of the input
+        private long readLine() throws IOException {
+            text.setLength(0);
+            int c = reader.read();
+            if (c == -1) return -1;
+            line++;
+            long length = 0;
+            for (; c != -1 && c != '\n'; c = reader.read()) {
+                if (c == '\r') continue;
+                if (++length <= maxLineLength) text.append((char) c);
+            }
+            return length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bookapp.services.impl;
+
+import com.example.bookapp.components.BookSearchIndex;
+import com.example.bookapp.dto.output.BookResponseDTO;
+import com.example.bookapp.dto.output.BookSearchResultDTO;
+import com.example.bookapp.exceptions.ResourceNotFoundException;
+import com.example.bookapp.repositories.BookRepository;
+import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.services.BookSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks with the Lucene index and loads the matching rows with one {@code IN} query on
+ * {@code (user_id, isbn)}. The database is never asked to scan for text.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookSearchServiceImpl implements BookSearchService {
+
+    private static final int MAX_RESULTS = 100;
+
+    private final BookSearchIndex bookSearchIndex;
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookSearchResultDTO search(Long userId, String query, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (size < 1 || size > MAX_RESULTS) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_RESULTS);
+        }
+        checkUserExists(userId);
+
+        BookSearchIndex.Hits hits = bookSearchIndex.search(userId, query, size);
+        if (hits.isbns().isEmpty()) {
+            return new BookSearchResultDTO(List.of(), hits.totalHits());
+        }
+
+        Map<String, BookResponseDTO> byIsbn = new HashMap<>();
+        for (BookResponseDTO book : bookRepository.findResponsesByUserIdAndIsbnIn(userId, hits.isbns())) {
+            byIsbn.put(book.getIsbn(), book);
+        }
+
+        // Index order is the ranking; a hit whose row is already gone is skipped
+        List<BookResponseDTO> content = new ArrayList<>(byIsbn.size());
+        for (String isbn : hits.isbns()) {
+            BookResponseDTO book = byIsbn.get(isbn);
+            if (book != null) content.add(book);
+        }
+        return new BookSearchResultDTO(content, hits.totalHits());
+    }
+
+    @Override
+    public void rebuild(Long userId) {
+        checkUserExists(userId);
+        bookSearchIndex.rebuild(userId);
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.example.bookapp.services.impl;
 
+import com.example.bookapp.components.BookCountCache;
+import com.example.bookapp.components.KeysetCursor;
 import com.example.bookapp.components.Mapper;
+import com.example.bookapp.components.TitleAutocompleteIndex;
+import com.example.bookapp.dto.input.BookFilterDTO;
+import com.example.bookapp.dto.input.BookLookupDTO;
 import com.example.bookapp.dto.input.BookRegisterDTO;
 import com.example.bookapp.dto.input.BookUpdateDTO;
+import com.example.bookapp.dto.output.BookCursorPageDTO;
+import com.example.bookapp.dto.output.BookLookupResultDTO;
 import com.example.bookapp.dto.output.BookResponseDTO;
+import com.example.bookapp.dto.output.BookSuggestionDTO;
 import com.example.bookapp.entities.Book;
-import com.example.bookapp.entities.Genre;
 import com.example.bookapp.entities.User;
+import com.example.bookapp.events.BookChangedEvent;
 import com.example.bookapp.exceptions.AlreadyExistException;
 import com.example.bookapp.exceptions.ResourceNotFoundException;
 import com.example.bookapp.repositories.BookRepository;
@@ -15,10 +23,18 @@ import com.example.bookapp.repositories.UserRepository;
 import com.example.bookapp.services.BookService;
 import com.example.bookapp.services.ImageStorageService;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.core.io.UrlResource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +45,11 @@ import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -36,28 +57,44 @@ public class BookServiceImpl implements BookService {
 
     private static final String BOOK_NOT_FOUND_FOR_USER = "Book not found for the user";
 
+    // One query for a request of the largest size the endpoint accepts; direct callers may pass more
+    private static final int LOOKUP_CHUNK_SIZE = BookLookupDTO.MAX_ISBNS;
+
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final BookRepository bookRepository;
     private final GenreRepository genreRepository;
     private final UserRepository userRepository;
     private final Mapper mapper;
     private final ImageStorageService imageStorageService;
+    private final BookCountCache bookCountCache;
+    private final TitleAutocompleteIndex titleAutocompleteIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public BookResponseDTO register(BookRegisterDTO dto) {
-        if (bookRepository.existsByIsbn(dto.getIsbn())) {
-            throw new AlreadyExistException("A book with this ISBN already exists");
-        }
-
-        Genre genre = getGenreOrThrow(dto.getGenreId());
-        User user = getUserOrThrow(dto.getUserId());
+        String genreName = getOwnedGenreNameOrThrow(dto.getGenreId(), dto.getUserId());
 
+        // The genre belongs to the user, so both rows exist: references are enough to write the foreign keys
         Book book = mapper.toEntity(dto, Book.class);
-        book.setUser(user);
-        book.setGenre(genre);
+        book.setUser(userRepository.getReferenceById(dto.getUserId()));
+        book.setGenre(genreRepository.getReferenceById(dto.getGenreId()));
 
-        Book saved = bookRepository.save(book);
-        return toBookResponseDTO(saved);
+        // A plain INSERT; the primary key rejects duplicate ISBNs
+        Book saved;
+        try {
+            saved = bookRepository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw new AlreadyExistException("A book with this ISBN already exists");
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(BookChangedEvent.created(
+                dto.getUserId(), saved.getIsbn(), dto.getGenreId(), saved.getTitle(), saved.getSynopsis()));
+        return toBookResponseDTO(saved, genreName);
     }
 
     @Override
@@ -65,44 +102,110 @@ public class BookServiceImpl implements BookService {
     public BookResponseDTO update(BookUpdateDTO dto) {
         Book book = bookRepository.findByIsbnAndUserId(dto.getIsbn(), dto.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException(BOOK_NOT_FOUND_FOR_USER));
+        Long previousGenreId = book.getGenre().getId();
+        String genreName = book.getGenre().getName();
 
         if (dto.getTitle() != null) book.setTitle(dto.getTitle());
         if (dto.getPublishedDate() != null) book.setPublishedDate(dto.getPublishedDate());
         if (dto.getSynopsis() != null) book.setSynopsis(dto.getSynopsis());
 
-        if (dto.getGenreId() != null) {
-            Genre genre = getGenreOrThrow(dto.getGenreId());
-            book.setGenre(genre);
+        if (dto.getGenreId() != null && !dto.getGenreId().equals(previousGenreId)) {
+            genreName = getOwnedGenreNameOrThrow(dto.getGenreId(), dto.getUserId());
+            book.setGenre(genreRepository.getReferenceById(dto.getGenreId()));
         }
 
         Book updated = bookRepository.save(book);
-        return toBookResponseDTO(updated);
+        eventPublisher.publishEvent(BookChangedEvent.updated(
+                dto.getUserId(), updated.getIsbn(), previousGenreId, updated.getGenre().getId(),
+                updated.getTitle(), updated.getSynopsis()));
+        return toBookResponseDTO(updated, genreName);
     }
 
     @Override
     @Transactional
     public void deleteByIsbn(String isbn, Long userId) {
-        getUserOrThrow(userId);
         Book book = bookRepository.findByIsbnAndUserId(isbn, userId)
                 .orElseThrow(() -> new ResourceNotFoundException(BOOK_NOT_FOUND_FOR_USER));
 
         bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(userId, isbn, book.getGenre().getId()));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<BookResponseDTO> findPaginated(Long userId, int page, int size) {
-        Page<Book> books = bookRepository.findByUserId(userId, PageRequest.of(page, size));
-        return books.map(this::toBookResponseDTO);
+    public Page<BookResponseDTO> findPaginated(Long userId, int page, int size, boolean includeSynopsis) {
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<BookResponseDTO> books = bookRepository.findListingByUserId(userId, includeSynopsis, pageable);
+        return new PageImpl<>(books.getContent(), pageable, bookCountCache.countForUser(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<BookResponseDTO> findByGenreIdAndUserId(Long genreId, Long userId, int page, int size) {
-        getUserOrThrow(userId);
-        Genre genre = getGenreOrThrow(genreId);
-        Page<Book> books = bookRepository.findByGenreAndUserId(genre, userId, PageRequest.of(page, size));
-        return books.map(this::toBookResponseDTO);
+    public BookCursorPageDTO findByCursor(Long userId, String cursor, int size, boolean includeTotal,
+                                          boolean includeSynopsis) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+
+        // One extra row tells whether there is a next page without counting
+        Limit limit = Limit.of(size + 1);
+        List<BookResponseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = includeSynopsis
+                    ? bookRepository.findFirstKeysetPage(userId, limit)
+                    : bookRepository.findFirstKeysetSummaryPage(userId, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = includeSynopsis
+                    ? bookRepository.findKeysetPageAfter(userId, after.createdAt(), after.isbn(), limit)
+                    : bookRepository.findKeysetSummaryPageAfter(userId, after.createdAt(), after.isbn(), limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            BookResponseDTO last = rows.get(size - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getIsbn()).encode();
+        }
+
+        Long total = includeTotal ? bookCountCache.countForUser(userId) : null;
+        return new BookCursorPageDTO(rows, nextCursor, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookResponseDTO> findByGenreIdAndUserId(Long genreId, Long userId, int page, int size,
+                                                        boolean includeSynopsis) {
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<BookResponseDTO> books = bookRepository.findListingByGenreIdAndUserId(genreId, userId, includeSynopsis, pageable);
+
+        // Rows prove the genre is the user's; only an empty page needs to tell "no books" from "no such genre"
+        if (books.isEmpty()) {
+            if (!genreRepository.existsByIdAndUserId(genreId, userId)) {
+                throw new ResourceNotFoundException("Genre not found");
+            }
+            if (page == 0) {
+                return new PageImpl<>(List.of(), pageable, 0);
+            }
+        }
+        return new PageImpl<>(books.getContent(), pageable, bookCountCache.countForGenre(userId, genreId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<BookResponseDTO> findByFilter(BookFilterDTO filter) {
+        if (isAfter(filter.getPublishedFrom(), filter.getPublishedTo())) {
+            throw new IllegalArgumentException("publishedFrom must not be after publishedTo");
+        }
+        if (isAfter(filter.getCreatedFrom(), filter.getCreatedTo())) {
+            throw new IllegalArgumentException("createdFrom must not be after createdTo");
+        }
+        getUserOrThrow(filter.getUserId());
+
+        // isbn breaks ties so rows never move between pages; every sort column has a (user_id, column, isbn) index
+        Sort.Direction direction = Sort.Direction.fromString(filter.getDirection());
+        Sort sort = Sort.by(direction, sortProperty(filter.getSort())).and(Sort.by(direction, "isbn"));
+        return bookRepository.findByFilter(filter, PageRequest.of(filter.getPage(), filter.getSize(), sort));
     }
 
     @Override
@@ -114,6 +217,48 @@ public class BookServiceImpl implements BookService {
         return toBookResponseDTO(book);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BookLookupResultDTO findByIsbnsAndUserId(List<String> isbns, Long userId) {
+        List<String> requested = new ArrayList<>(new LinkedHashSet<>(isbns));
+
+        Map<String, BookResponseDTO> byIsbn = new HashMap<>();
+        for (int from = 0; from < requested.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = requested.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, requested.size()));
+            for (BookResponseDTO book : bookRepository.findResponsesByUserIdAndIsbnIn(userId, chunk)) {
+                byIsbn.put(book.getIsbn(), book);
+            }
+        }
+        // The query is scoped by user, so a hit proves the user exists; only a total miss needs checking
+        if (byIsbn.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        List<BookResponseDTO> found = new ArrayList<>(byIsbn.size());
+        List<String> missing = new ArrayList<>();
+        for (String isbn : requested) {
+            BookResponseDTO book = byIsbn.get(isbn);
+            if (book != null) {
+                found.add(book);
+            } else {
+                missing.add(isbn);
+            }
+        }
+        return new BookLookupResultDTO(found, missing);
+    }
+
+    /**
+     * Served from memory on every keystroke, so there is no user lookup: an unknown user simply has
+     * no titles.
+     */
+    @Override
+    public List<BookSuggestionDTO> suggestTitles(Long userId, String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return titleAutocompleteIndex.suggest(userId, prefix, limit);
+    }
+
     @Override
     @Transactional
     public BookResponseDTO updateCoverImage(String isbn, Long userId, MultipartFile file) {
@@ -165,14 +310,39 @@ public class BookServiceImpl implements BookService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
-    private Genre getGenreOrThrow(Long genreId) {
-        return genreRepository.findById(genreId)
+    /**
+     * Existence and ownership in one query; the name is all the response needs from the genre.
+     */
+    private String getOwnedGenreNameOrThrow(Long genreId, Long userId) {
+        return genreRepository.findNameByIdAndUserId(genreId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Genre not found"));
     }
 
+    private static String sortProperty(String sort) {
+        return switch (sort) {
+            case "title" -> "title";
+            case "publishedDate" -> "publishedDate";
+            case "createdAt" -> "createdAt";
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sort);
+        };
+    }
+
+    private static <T extends Comparable<? super T>> boolean isAfter(T from, T to) {
+        return from != null && to != null && from.compareTo(to) > 0;
+    }
+
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+    }
+
     private BookResponseDTO toBookResponseDTO(Book book) {
-        BookResponseDTO dto = mapper.toDto(book, BookResponseDTO.class);
-        dto.setGenre(book.getGenre().getName());
-        return dto;
+        return toBookResponseDTO(book, book.getGenre().getName());
+    }
+
+    // Built by hand: ModelMapper walks every association and would initialize the genre reference
+    private BookResponseDTO toBookResponseDTO(Book book, String genreName) {
+        return new BookResponseDTO(book.getIsbn(), book.getTitle(), genreName, book.getPublishedDate(),
+                book.getSynopsis(), book.getCoverImagePath(), book.getCreatedAt());
     }
 }
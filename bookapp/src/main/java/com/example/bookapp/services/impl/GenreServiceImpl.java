@@ -1,16 +1,23 @@
 package com.example.bookapp.services.impl;
 
+import com.example.bookapp.components.GenreCatalogCache;
 import com.example.bookapp.components.Mapper;
 import com.example.bookapp.dto.input.GenreRegisterDTO;
 import com.example.bookapp.dto.output.GenreResponseDTO;
+import com.example.bookapp.dto.output.GenreStatsDTO;
 import com.example.bookapp.entities.Genre;
 import com.example.bookapp.entities.User;
+import com.example.bookapp.events.GenreChangedEvent;
 import com.example.bookapp.exceptions.AlreadyExistException;
 import com.example.bookapp.exceptions.ResourceNotFoundException;
 import com.example.bookapp.repositories.GenreRepository;
+import com.example.bookapp.repositories.GenreStatsRepository;
 import com.example.bookapp.repositories.UserRepository;
 import com.example.bookapp.services.GenreService;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,9 +27,14 @@ import java.util.List;
 @RequiredArgsConstructor
 public class GenreServiceImpl implements GenreService {
 
+    private static final String GENRE_ALREADY_EXISTS = "A genre with this name already exists for this user";
+
     private final GenreRepository genreRepository;
+    private final GenreStatsRepository genreStatsRepository;
     private final UserRepository userRepository;
     private final Mapper mapper;
+    private final GenreCatalogCache genreCatalogCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -35,17 +47,42 @@ public class GenreServiceImpl implements GenreService {
                 .user(user)
                 .build();
 
-        Genre saved = genreRepository.save(genre);
+        // The catalog can miss a genre another node has just added, or compare names differently from the
+        // database collation; the unique constraint is what decides
+        Genre saved;
+        try {
+            saved = genreRepository.save(genre);
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw new AlreadyExistException(GENRE_ALREADY_EXISTS);
+            }
+            throw e;
+        }
+        // Created up front so the first books of the genre only ever UPDATE its counter row
+        genreStatsRepository.insertEmpty(saved.getId(), dto.getUserId());
+        eventPublisher.publishEvent(new GenreChangedEvent(dto.getUserId(), saved.getId()));
         return mapper.toDto(saved, GenreResponseDTO.class);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<GenreResponseDTO> findAllByUserId(Long userId) {
-        List<Genre> genres = genreRepository.findByUserId(userId);
-        return genres.stream()
-                .map(genre -> mapper.toDto(genre, GenreResponseDTO.class))
-                .toList();
+        return genreCatalogCache.get(userId).genres();
+    }
+
+    @Override
+    public GenreCatalogCache.Catalog findCatalogByUserId(Long userId) {
+        return genreCatalogCache.get(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GenreStatsDTO> findStatsByUserId(Long userId) {
+        List<GenreStatsDTO> summaries = genreStatsRepository.findSummariesByUserId(userId);
+        // Rows prove the user exists; only an empty sidebar needs to tell "no genres" from "no such user"
+        if (summaries.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        return summaries;
     }
 
     private User getUserOrThrow(Long userId) {
@@ -53,9 +90,16 @@ public class GenreServiceImpl implements GenreService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
+    private static boolean isUniqueViolation(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+    }
+
+    // The catalog spares the query for new names; a possible duplicate is confirmed with UPPER in SQL
     private void validateUniqueGenreName(String name, Long userId) {
-        if (genreRepository.existsByNameIgnoreCaseAndUserId(name, userId)) {
-            throw new AlreadyExistException("A genre with this name already exists for this user");
+        if (genreCatalogCache.get(userId).containsName(name)
+                && genreRepository.existsByNameIgnoreCaseAndUserId(name, userId)) {
+            throw new AlreadyExistException(GENRE_ALREADY_EXISTS);
         }
     }
 }
@@ -0,0 +1,115 @@
+package com.example.bookapp.services.impl;
+
+import com.example.bookapp.entities.RefreshToken;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.exceptions.InvalidTokenException;
+import com.example.bookapp.repositories.RefreshTokenRepository;
+import com.example.bookapp.services.RefreshTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   @Value("${jwt.refresh-token-ttl:7d}") Duration refreshTokenTtl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    @Override
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(hash(refreshToken))
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+
+        if (current.isRevoked() || current.getUsedAt() != null) {
+            throw reused(current);
+        }
+
+        if (current.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidTokenException("Refresh token has expired");
+        }
+
+        // Conditional write: of two concurrent rotations of the same token only one gets the row
+        if (refreshTokenRepository.claim(current.getId(), Instant.now()) == 0) {
+            throw reused(current);
+        }
+
+        String next = create(current.getUser(), current.getFamilyId());
+        return new Rotation(current.getUser(), next);
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHashWithUser(hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-cleanup-interval:PT1H}")
+    @Transactional
+    public void deleteExpired() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    // A rotated token coming back means it was copied: every token of the chain is revoked
+    private InvalidTokenException reused(RefreshToken token) {
+        refreshTokenRepository.revokeFamily(token.getFamilyId());
+        return new InvalidTokenException("Refresh token has already been used");
+    }
+
+    private String create(User user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = ENCODER.encodeToString(bytes);
+
+        RefreshToken refreshToken = RefreshToken.builder()
+                .tokenHash(hash(token))
+                .user(user)
+                .familyId(familyId)
+                .expiresAt(Instant.now().plus(refreshTokenTtl))
+                .build();
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
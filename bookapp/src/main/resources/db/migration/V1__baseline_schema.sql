@@ -0,0 +1,82 @@
+-- Baseline schema, matching what ddl-auto used to create. Every statement is guarded so the script
+-- also runs cleanly against databases that were created by Hibernate before migrations existed.
+
+IF OBJECT_ID(N'dbo.users', N'U') IS NULL
+CREATE TABLE dbo.users (
+    id          BIGINT IDENTITY(1,1) NOT NULL,
+    username    VARCHAR(255)         NOT NULL,
+    email       VARCHAR(255)         NOT NULL,
+    password    VARCHAR(255)         NOT NULL,
+    token_epoch BIGINT               NOT NULL CONSTRAINT df_users_token_epoch DEFAULT 0,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+GO
+
+IF COL_LENGTH(N'dbo.users', N'token_epoch') IS NULL
+ALTER TABLE dbo.users ADD token_epoch BIGINT NOT NULL CONSTRAINT df_users_token_epoch DEFAULT 0;
+GO
+
+IF OBJECT_ID(N'dbo.genres', N'U') IS NULL
+CREATE TABLE dbo.genres (
+    id      BIGINT IDENTITY(1,1) NOT NULL,
+    name    VARCHAR(255)         NOT NULL,
+    user_id BIGINT               NOT NULL,
+    CONSTRAINT pk_genres PRIMARY KEY (id),
+    CONSTRAINT uk_genres_name_user UNIQUE (name, user_id),
+    CONSTRAINT fk_genres_user FOREIGN KEY (user_id) REFERENCES dbo.users (id)
+);
+GO
+
+IF OBJECT_ID(N'dbo.books', N'U') IS NULL
+CREATE TABLE dbo.books (
+    isbn             VARCHAR(255) NOT NULL,
+    title            VARCHAR(255) NOT NULL,
+    genre_id         BIGINT       NOT NULL,
+    published_date   DATE         NOT NULL,
+    synopsis         TEXT         NOT NULL,
+    created_at       DATETIME2(6) NOT NULL,
+    user_id          BIGINT       NOT NULL,
+    cover_image_path VARCHAR(255) NULL,
+    CONSTRAINT pk_books PRIMARY KEY (isbn),
+    CONSTRAINT fk_books_genre FOREIGN KEY (genre_id) REFERENCES dbo.genres (id),
+    CONSTRAINT fk_books_user FOREIGN KEY (user_id) REFERENCES dbo.users (id)
+);
+GO
+
+IF OBJECT_ID(N'dbo.refresh_tokens', N'U') IS NULL
+CREATE TABLE dbo.refresh_tokens (
+    id         BIGINT IDENTITY(1,1) NOT NULL,
+    token_hash VARCHAR(43)          NOT NULL,
+    user_id    BIGINT               NOT NULL,
+    family_id  UNIQUEIDENTIFIER     NOT NULL,
+    expires_at DATETIMEOFFSET(6)    NOT NULL,
+    used_at    DATETIMEOFFSET(6)    NULL,
+    revoked    BIT                  NOT NULL,
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES dbo.users (id)
+);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_refresh_tokens_family' AND object_id = OBJECT_ID(N'dbo.refresh_tokens'))
+CREATE INDEX idx_refresh_tokens_family ON dbo.refresh_tokens (family_id);
+GO
+
+IF OBJECT_ID(N'dbo.revoked_tokens', N'U') IS NULL
+CREATE TABLE dbo.revoked_tokens (
+    jti        VARCHAR(36)       NOT NULL,
+    expires_at DATETIMEOFFSET(6) NOT NULL,
+    revoked_at DATETIMEOFFSET(6) NOT NULL,
+    CONSTRAINT pk_revoked_tokens PRIMARY KEY (jti)
+);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_revoked_tokens_revoked_at' AND object_id = OBJECT_ID(N'dbo.revoked_tokens'))
+CREATE INDEX idx_revoked_tokens_revoked_at ON dbo.revoked_tokens (revoked_at);
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'idx_revoked_tokens_expires_at' AND object_id = OBJECT_ID(N'dbo.revoked_tokens'))
+CREATE INDEX idx_revoked_tokens_expires_at ON dbo.revoked_tokens (expires_at);
+GO
@@ -0,0 +1,45 @@
+-- Indexes for every BookRepository and GenreRepository access path. Keep SchemaIndexVerifier in sync.
+
+-- findByIsbnAndUserId, and the ownership check of every per-book write
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_books_user_isbn' AND object_id = OBJECT_ID(N'dbo.books'))
+CREATE INDEX ix_books_user_isbn ON dbo.books (user_id, isbn);
+GO
+
+-- findResponsesByUserId, the keyset pages and countByGenreForUser
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_books_user_created_isbn' AND object_id = OBJECT_ID(N'dbo.books'))
+DROP INDEX ix_books_user_created_isbn ON dbo.books;
+GO
+CREATE INDEX ix_books_user_created_isbn ON dbo.books (user_id, created_at, isbn)
+    INCLUDE (title, genre_id, published_date, cover_image_path);
+GO
+
+-- findResponsesByGenreIdAndUserId
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_books_user_genre_created' AND object_id = OBJECT_ID(N'dbo.books'))
+CREATE INDEX ix_books_user_genre_created ON dbo.books (user_id, genre_id, created_at)
+    INCLUDE (title, published_date, cover_image_path);
+GO
+
+-- countByGenreId, existsByIdAndBooksIsNotEmpty and the genre foreign key
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_books_genre' AND object_id = OBJECT_ID(N'dbo.books'))
+CREATE INDEX ix_books_genre ON dbo.books (genre_id);
+GO
+
+-- findByUserId
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_genres_user_name' AND object_id = OBJECT_ID(N'dbo.genres'))
+CREATE INDEX ix_genres_user_name ON dbo.genres (user_id, name);
+GO
+
+-- findByNameIgnoreCaseAndUserId / existsByNameIgnoreCaseAndUserId compare upper(name) = upper(?),
+-- which cannot seek on name. The optimizer matches that expression to a persisted computed column.
+IF COL_LENGTH(N'dbo.genres', N'name_upper') IS NULL
+ALTER TABLE dbo.genres ADD name_upper AS UPPER(name) PERSISTED;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_genres_user_name_upper' AND object_id = OBJECT_ID(N'dbo.genres'))
+CREATE INDEX ix_genres_user_name_upper ON dbo.genres (user_id, name_upper);
+GO
+
+-- refresh_tokens / revoked_tokens housekeeping
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_refresh_tokens_expires_at' AND object_id = OBJECT_ID(N'dbo.refresh_tokens'))
+CREATE INDEX ix_refresh_tokens_expires_at ON dbo.refresh_tokens (expires_at);
+GO
@@ -0,0 +1,54 @@
+-- books.synopsis: TEXT (deprecated LOB, stored off-row) -> NVARCHAR(500), the limit BookRegisterDTO
+-- already enforces. ALTER COLUMN would rewrite and lock the whole table in one go, so the data is
+-- copied into a new column in small batches (this script runs outside a transaction, see .conf) and
+-- the columns are swapped at the end in one short transaction.
+
+IF COL_LENGTH(N'dbo.books', N'synopsis_nv') IS NULL
+   AND TYPE_NAME((SELECT system_type_id FROM sys.columns
+                  WHERE object_id = OBJECT_ID(N'dbo.books') AND name = N'synopsis')) = N'text'
+ALTER TABLE dbo.books ADD synopsis_nv NVARCHAR(500) NULL;
+GO
+
+-- Rows written by instances still running the old build while the copy is in progress
+IF COL_LENGTH(N'dbo.books', N'synopsis_nv') IS NOT NULL AND OBJECT_ID(N'dbo.tr_books_synopsis_nv', N'TR') IS NULL
+EXEC (N'CREATE TRIGGER dbo.tr_books_synopsis_nv ON dbo.books AFTER INSERT, UPDATE AS
+BEGIN
+    SET NOCOUNT ON;
+    IF NOT UPDATE(synopsis) RETURN;
+    UPDATE b SET synopsis_nv = LEFT(CAST(b.synopsis AS NVARCHAR(MAX)), 500)
+    FROM dbo.books b JOIN inserted i ON i.isbn = b.isbn;
+END');
+GO
+
+IF COL_LENGTH(N'dbo.books', N'synopsis_nv') IS NOT NULL
+BEGIN
+    DECLARE @batch INT = 5000;
+    WHILE 1 = 1
+    BEGIN
+        UPDATE TOP (@batch) dbo.books
+        SET synopsis_nv = LEFT(CAST(synopsis AS NVARCHAR(MAX)), 500)
+        WHERE synopsis_nv IS NULL;
+
+        IF @@ROWCOUNT < @batch BREAK;
+    END
+END
+GO
+
+IF COL_LENGTH(N'dbo.books', N'synopsis_nv') IS NOT NULL
+BEGIN
+    SET XACT_ABORT ON;
+    BEGIN TRANSACTION;
+
+    DROP TRIGGER IF EXISTS dbo.tr_books_synopsis_nv;
+
+    UPDATE dbo.books WITH (TABLOCKX)
+    SET synopsis_nv = LEFT(CAST(synopsis AS NVARCHAR(MAX)), 500)
+    WHERE synopsis_nv IS NULL;
+
+    ALTER TABLE dbo.books DROP COLUMN synopsis;
+    EXEC sp_rename N'dbo.books.synopsis_nv', N'synopsis', N'COLUMN';
+    ALTER TABLE dbo.books ALTER COLUMN synopsis NVARCHAR(500) NOT NULL;
+
+    COMMIT TRANSACTION;
+END
+GO
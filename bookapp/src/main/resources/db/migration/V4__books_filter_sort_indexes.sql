@@ -0,0 +1,14 @@
+-- Sort orders offered by GET /api/v1/books/query besides created_at, which ix_books_user_created_isbn
+-- already serves. isbn is the tie breaker of every sort so pages are stable. Keep SchemaIndexVerifier in sync.
+
+-- sort=publishedDate, and publishedFrom/publishedTo ranges
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_books_user_published_isbn' AND object_id = OBJECT_ID(N'dbo.books'))
+CREATE INDEX ix_books_user_published_isbn ON dbo.books (user_id, published_date, isbn)
+    INCLUDE (title, genre_id, created_at, cover_image_path);
+GO
+
+-- sort=title
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_books_user_title_isbn' AND object_id = OBJECT_ID(N'dbo.books'))
+CREATE INDEX ix_books_user_title_isbn ON dbo.books (user_id, title, isbn)
+    INCLUDE (genre_id, published_date, created_at, cover_image_path);
+GO
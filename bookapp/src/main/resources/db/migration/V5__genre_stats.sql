@@ -0,0 +1,27 @@
+-- Per-genre book counters behind GET /api/v1/genres/user/{userId}/stats, maintained by GenreStatsListener
+-- in the same transaction as every book write. Keep SchemaIndexVerifier in sync.
+
+IF OBJECT_ID(N'dbo.genre_stats', N'U') IS NULL
+CREATE TABLE dbo.genre_stats (
+    genre_id          BIGINT       NOT NULL CONSTRAINT pk_genre_stats PRIMARY KEY,
+    user_id           BIGINT       NOT NULL,
+    book_count        BIGINT       NOT NULL,
+    latest_created_at DATETIME2(6) NULL,
+    CONSTRAINT fk_genre_stats_genre FOREIGN KEY (genre_id) REFERENCES dbo.genres (id) ON DELETE CASCADE
+);
+GO
+
+-- The sidebar reads every row of one user
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = N'ix_genre_stats_user' AND object_id = OBJECT_ID(N'dbo.genre_stats'))
+CREATE INDEX ix_genre_stats_user ON dbo.genre_stats (user_id) INCLUDE (book_count, latest_created_at);
+GO
+
+-- Backfill. Genres added later get their row from GenreServiceImpl.register, and a missing row is
+-- recounted by the listener on the next write to the genre.
+INSERT INTO dbo.genre_stats (genre_id, user_id, book_count, latest_created_at)
+SELECT g.id, g.user_id, COUNT(b.isbn), MAX(b.created_at)
+FROM dbo.genres g
+LEFT JOIN dbo.books b ON b.genre_id = g.id AND b.user_id = g.user_id
+WHERE NOT EXISTS (SELECT 1 FROM dbo.genre_stats s WHERE s.genre_id = g.id)
+GROUP BY g.id, g.user_id;
+GO
@@ -0,0 +1,83 @@
+package com.example.bookapp.benchmarks;
+
+import com.example.bookapp.security.jwt.JwtClaims;
+import com.example.bookapp.security.jwt.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifications per second of the per-request JWT work done by JwtAuthenticationFilter.
+ * <p>
+ * Run with:
+ * {@code ./mvnw -Pbenchmarks test-compile exec:exec}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "4E6F795265616C6C79536563726574506C656173654368616E6765546869734B6579";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, Duration.ofMinutes(3));
+        userDetails = new User("abel@example.com", "", Collections.emptyList());
+        token = jwtService.generateToken(Map.of("userId", 1L, "username", "abel"), userDetails);
+    }
+
+    /**
+     * Previous behaviour: the key is decoded and a parser is built on every call, and the filter
+     * parses the token three times (extractUsername, then subject and expiration in isTokenValid).
+     */
+    @Benchmark
+    public boolean before() {
+        String username = legacyParse(token).getSubject();
+        return legacyParse(token).getSubject().equals(username)
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean after() {
+        JwtClaims claims = jwtService.verify(token);
+        return jwtService.isTokenValid(claims, userDetails);
+    }
+
+    private static Claims legacyParse(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
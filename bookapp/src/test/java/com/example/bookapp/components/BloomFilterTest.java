@@ -0,0 +1,40 @@
+package com.example.bookapp.components;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_shouldNeverMissAnAddedValue() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        String[] values = new String[1_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            filter.add(values[i]);
+        }
+
+        for (String value : values) {
+            assertTrue(filter.mightContain(value));
+        }
+    }
+
+    @Test
+    void mightContain_shouldKeepFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) falsePositives++;
+        }
+
+        assertTrue(falsePositives < probes * 0.03, "false positives: " + falsePositives);
+    }
+}
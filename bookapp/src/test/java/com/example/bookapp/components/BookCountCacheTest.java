@@ -0,0 +1,91 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.events.BookChangedEvent;
+import com.example.bookapp.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookCountCacheTest {
+
+    private BookRepository bookRepository;
+    private BookCountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.countByGenreForUser(1L)).thenReturn(List.of(
+                new Object[]{10L, 3L},
+                new Object[]{20L, 2L}));
+        cache = new BookCountCache(bookRepository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void counts_shouldBeLoadedOnceAndServedFromCache() {
+        // Act
+        long total = cache.countForUser(1L);
+        long drama = cache.countForGenre(1L, 10L);
+        long unknown = cache.countForGenre(1L, 99L);
+        cache.countForUser(1L);
+
+        // Assert
+        assertEquals(5, total);
+        assertEquals(3, drama);
+        assertEquals(0, unknown);
+        verify(bookRepository, times(1)).countByGenreForUser(1L);
+    }
+
+    @Test
+    void events_shouldAdjustCountsIncrementally() {
+        // Arrange
+        cache.countForUser(1L);
+
+        // Act
+        cache.onBookChanged(BookChangedEvent.created(1L, "1", 10L, null, null));
+        cache.onBookChanged(BookChangedEvent.updated(1L, "2", 10L, 20L, null, null));
+        cache.onBookChanged(BookChangedEvent.updated(1L, "3", 20L, 20L, null, null));
+        cache.onBookChanged(BookChangedEvent.deleted(1L, "4", 20L));
+
+        // Assert
+        assertEquals(5, cache.countForUser(1L));
+        assertEquals(3, cache.countForGenre(1L, 10L));
+        assertEquals(2, cache.countForGenre(1L, 20L));
+        verify(bookRepository, times(1)).countByGenreForUser(1L);
+    }
+
+    @Test
+    void events_forCountsLoadedAfterTheWrite_shouldReloadInsteadOfCountingTwice() {
+        // Arrange: the book is created, then the counts are loaded before the event's afterCommit runs
+        when(bookRepository.countByGenreForUser(1L)).thenReturn(List.<Object[]>of(new Object[]{10L, 4L}));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.onBookChanged(BookChangedEvent.created(1L, "1", 10L, null, null));
+            assertEquals(4, cache.countForUser(1L));
+
+            // Act
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertEquals(4, cache.countForUser(1L));
+        verify(bookRepository, times(2)).countByGenreForUser(1L);
+    }
+
+    @Test
+    void events_forUncachedUser_shouldBeIgnored() {
+        // Act
+        cache.onBookChanged(BookChangedEvent.created(1L, "1", 10L, null, null));
+
+        // Assert
+        assertEquals(5, cache.countForUser(1L));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.entities.Book;
+import com.example.bookapp.entities.Genre;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.events.BookChangedEvent;
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BookSearchIndex.class, UserDetailsCache.class, UserCacheInvalidationListener.class})
+class BookSearchIndexTest {
+
+    @Autowired
+    private BookSearchIndex index;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        index.rebuild();
+        index.onBookChanged(BookChangedEvent.created(1L, "1111111111", 10L,
+                "Designing Data-Intensive Applications", "Reliable, scalable and maintainable systems"));
+        index.onBookChanged(BookChangedEvent.created(1L, "2222222222", 10L,
+                "Clean Code", "Writing data access code that stays readable"));
+        index.onBookChanged(BookChangedEvent.created(2L, "3333333333", 20L,
+                "Data Science from Scratch", "First principles with Python"));
+    }
+
+    @Test
+    void search_shouldRankTitleMatchesFirstAndStayWithinUser() {
+        // Act
+        BookSearchIndex.Hits hits = index.search(1L, "data", 10);
+
+        // Assert
+        assertEquals(2, hits.totalHits());
+        assertEquals(List.of("1111111111", "2222222222"), hits.isbns());
+    }
+
+    @Test
+    void search_shouldMatchPrefixesAndRequireEveryWord() {
+        // Act
+        BookSearchIndex.Hits prefix = index.search(1L, "maintain", 10);
+        BookSearchIndex.Hits both = index.search(1L, "clean readab", 10);
+        BookSearchIndex.Hits none = index.search(1L, "clean python", 10);
+
+        // Assert
+        assertEquals(List.of("1111111111"), prefix.isbns());
+        assertEquals(List.of("2222222222"), both.isbns());
+        assertTrue(none.isbns().isEmpty());
+    }
+
+    @Test
+    void onBookChanged_shouldReplaceUpdatedAndDropDeletedBooks() {
+        // Act
+        index.onBookChanged(BookChangedEvent.updated(1L, "2222222222", 10L, 10L,
+                "Refactoring", "Improving the design of existing code"));
+        index.onBookChanged(BookChangedEvent.deleted(1L, "1111111111", 10L));
+
+        // Assert
+        assertTrue(index.search(1L, "data", 10).isbns().isEmpty());
+        assertEquals(List.of("2222222222"), index.search(1L, "refactor", 10).isbns());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void rebuild_shouldReindexUserFromDatabase() {
+        // Arrange
+        User user = User.builder().username("abel").email("abel@example.com").password("hashed").build();
+        entityManager.persist(user);
+        Genre genre = Genre.builder().name("Programming").user(user).build();
+        entityManager.persist(genre);
+        entityManager.persist(Book.builder().isbn("9780137081073").title("Effective Java").genre(genre).user(user)
+                .publishedDate(LocalDate.of(2018, 1, 11)).synopsis("Best practices for the Java platform").build());
+        entityManager.flush();
+
+        // Act
+        index.rebuild(user.getId());
+
+        // Assert
+        assertEquals(List.of("9780137081073"), index.search(user.getId(), "effective", 10).isbns());
+    }
+}
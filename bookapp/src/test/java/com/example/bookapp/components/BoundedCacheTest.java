@@ -0,0 +1,94 @@
+package com.example.bookapp.components;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedCacheTest {
+
+    @Test
+    void getOrLoad_shouldCallLoaderOnlyOnMiss() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrLoad("a", key -> key + loads.incrementAndGet());
+        String value = cache.getOrLoad("a", key -> key + loads.incrementAndGet());
+
+        assertEquals("a1", value);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedWhenFull() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        cache.put("c", "3");
+
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void get_shouldExpireEntriesAfterTtl() {
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L, 0L, 61_000L);
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1), clock);
+
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("a"));
+
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidate_shouldForceReload() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+
+        cache.invalidate("a");
+
+        assertEquals("2", cache.getOrLoad("a", key -> "2"));
+    }
+
+    @Test
+    void getOrLoad_racingAnInvalidation_shouldNotCacheTheLoadedValue() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+
+        // The row is written and the key invalidated while the loader is still reading the old value
+        String loaded = cache.getOrLoad("a", key -> {
+            cache.invalidate("a");
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertEquals("fresh", cache.getOrLoad("a", key -> "fresh"));
+    }
+
+    @Test
+    void bindTo_shouldPublishCountersAsCacheMeters() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry, "users");
+
+        cache.getOrLoad("a", key -> "1");
+        cache.get("a");
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "users", "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "users", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "users").gauge().value());
+    }
+}
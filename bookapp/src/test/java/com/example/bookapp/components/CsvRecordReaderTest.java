@@ -0,0 +1,74 @@
+package com.example.bookapp.components;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void next_shouldHandleQuotesSeparatorsAndLineBreaks() throws IOException {
+        // Arrange
+        String csv = "isbn,title,synopsis\r\n"
+                + "123,\"Hello, world\",plain\n"
+                + "\n"
+                + "456,\"Say \"\"hi\"\"\",\"two\nlines\"\n"
+                + "789,,\"\"";
+
+        try (CsvRecordReader reader = new CsvRecordReader(new StringReader(csv))) {
+            // Act & Assert
+            assertEquals(List.of("isbn", "title", "synopsis"), reader.next());
+            assertEquals(1, reader.getRecordLine());
+
+            assertEquals(List.of("123", "Hello, world", "plain"), reader.next());
+            assertEquals(2, reader.getRecordLine());
+
+            assertEquals(List.of("456", "Say \"hi\"", "two\nlines"), reader.next());
+            assertEquals(4, reader.getRecordLine());
+
+            assertEquals(List.of("789", "", ""), reader.next());
+            assertEquals(6, reader.getRecordLine());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void next_withUnterminatedQuote_shouldFailAndThenEnd() throws IOException {
+        // Arrange
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("1,ok\n2,\"open\n3,lost"));
+        reader.next();
+
+        // Act & Assert
+        CsvRecordReader.MalformedRecordException e = assertThrows(CsvRecordReader.MalformedRecordException.class, reader::next);
+        assertEquals(2, e.getLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_overALengthLimit_shouldSkipThatRecordOnly() throws IOException {
+        // Arrange
+        String csv = "a,bbbbbb,c\n"
+                + "\"dd\ndd\",eeee,ffff,gggg\n"
+                + "h,i\n";
+
+        try (CsvRecordReader reader = new CsvRecordReader(new StringReader(csv), 5, 12)) {
+            // Act & Assert
+            CsvRecordReader.MalformedRecordException field = assertThrows(CsvRecordReader.MalformedRecordException.class, reader::next);
+            assertEquals(1, field.getLine());
+            assertTrue(field.getMessage().startsWith("Field longer than 5"));
+
+            CsvRecordReader.MalformedRecordException record = assertThrows(CsvRecordReader.MalformedRecordException.class, reader::next);
+            assertEquals(2, record.getLine());
+            assertTrue(record.getMessage().startsWith("Record longer than 12"));
+
+            assertEquals(List.of("h", "i"), reader.next());
+            assertEquals(4, reader.getRecordLine());
+            assertNull(reader.next());
+        }
+    }
+}
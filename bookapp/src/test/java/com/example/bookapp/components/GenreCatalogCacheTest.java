@@ -0,0 +1,85 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.dto.output.GenreResponseDTO;
+import com.example.bookapp.events.GenreChangedEvent;
+import com.example.bookapp.repositories.GenreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GenreCatalogCacheTest {
+
+    private GenreRepository genreRepository;
+    private GenreCatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        genreRepository = mock(GenreRepository.class);
+        cache = new GenreCatalogCache(genreRepository, 100, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void get_shouldLoadOnceAndAnswerNamesIgnoringCase() {
+        // Arrange
+        when(genreRepository.findResponsesByUserId(1L)).thenReturn(List.of(
+                new GenreResponseDTO(1L, "Drama"), new GenreResponseDTO(2L, "Ciencia ficción")));
+
+        // Act
+        GenreCatalogCache.Catalog first = cache.get(1L);
+        GenreCatalogCache.Catalog second = cache.get(1L);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(2, first.genres().size());
+        assertTrue(first.containsName("drama"));
+        assertTrue(first.containsName("CIENCIA FICCIÓN"));
+        assertFalse(first.containsName("Terror"));
+        verify(genreRepository, times(1)).findResponsesByUserId(1L);
+    }
+
+    @Test
+    void onGenreChanged_shouldReloadWithNewEtagOnlyWhenContentChanged() {
+        // Arrange
+        when(genreRepository.findResponsesByUserId(1L))
+                .thenReturn(List.of(new GenreResponseDTO(1L, "Drama")))
+                .thenReturn(List.of(new GenreResponseDTO(1L, "Drama")))
+                .thenReturn(List.of(new GenreResponseDTO(1L, "Drama"), new GenreResponseDTO(2L, "Terror")));
+        String original = cache.get(1L).etag();
+
+        // Act
+        cache.onGenreChanged(new GenreChangedEvent(1L, 1L));
+        String unchanged = cache.get(1L).etag();
+        cache.onGenreChanged(new GenreChangedEvent(1L, 2L));
+        GenreCatalogCache.Catalog changed = cache.get(1L);
+
+        // Assert
+        assertEquals(original, unchanged);
+        assertNotEquals(original, changed.etag());
+        assertTrue(changed.containsName("terror"));
+        verify(genreRepository, times(3)).findResponsesByUserId(1L);
+    }
+
+    @Test
+    void get_racingAGenreChange_shouldNotCacheTheListReadBeforeIt() {
+        // Arrange: the change commits while the first load is still running
+        when(genreRepository.findResponsesByUserId(1L))
+                .thenAnswer(invocation -> {
+                    cache.onGenreChanged(new GenreChangedEvent(1L, 2L));
+                    return List.of(new GenreResponseDTO(1L, "Drama"));
+                })
+                .thenReturn(List.of(new GenreResponseDTO(1L, "Drama"), new GenreResponseDTO(2L, "Terror")));
+
+        // Act
+        GenreCatalogCache.Catalog racing = cache.get(1L);
+        GenreCatalogCache.Catalog next = cache.get(1L);
+
+        // Assert
+        assertFalse(racing.containsName("Terror"));
+        assertTrue(next.containsName("Terror"));
+    }
+}
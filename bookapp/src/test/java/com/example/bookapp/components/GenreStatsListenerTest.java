@@ -0,0 +1,242 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.dto.output.GenreStatsDTO;
+import com.example.bookapp.entities.Book;
+import com.example.bookapp.entities.Genre;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.events.BookChangedEvent;
+import com.example.bookapp.repositories.GenreStatsRepository;
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+// The counters are written just before commit, so every write here runs in a transaction of its own
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({GenreStatsListener.class, UserDetailsCache.class, UserCacheInvalidationListener.class})
+class GenreStatsListenerTest {
+
+    private static final LocalDateTime OLDER = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime NEWER = LocalDateTime.of(2024, 6, 1, 10, 0);
+
+    @SpyBean
+    private GenreStatsRepository genreStatsRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Long userId;
+    private Long fantasyId;
+    private Long dramaId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            User user = User.builder().username("abel").email("abel@example.com").password("hashed").build();
+            entityManager.persist(user);
+            Genre fantasy = Genre.builder().name("Fantasy").user(user).build();
+            Genre drama = Genre.builder().name("Drama").user(user).build();
+            entityManager.persist(fantasy);
+            entityManager.persist(drama);
+            entityManager.flush();
+            genreStatsRepository.insertEmpty(fantasy.getId(), user.getId());
+            userId = user.getId();
+            fantasyId = fantasy.getId();
+            dramaId = drama.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM GenreStats").executeUpdate();
+            entityManager.createQuery("DELETE FROM Book").executeUpdate();
+            entityManager.createQuery("DELETE FROM Genre").executeUpdate();
+            entityManager.createQuery("DELETE FROM User").executeUpdate();
+        });
+    }
+
+    @Test
+    void onBookChanged_shouldCountCreatesAndTrackNewestBook() {
+        // Act
+        transaction.executeWithoutResult(status -> {
+            create("1111111111", fantasyId, OLDER);
+            create("2222222222", fantasyId, NEWER);
+        });
+
+        // Assert
+        List<GenreStatsDTO> stats = genreStatsRepository.findSummariesByUserId(userId);
+        assertEquals(2, stats.size());
+        assertStats(stats.get(0), fantasyId, 2, NEWER);
+        assertStats(stats.get(1), dramaId, 0, null);
+    }
+
+    @Test
+    void onBookChanged_shouldMoveCountsBetweenGenresAndCreateMissingRows() {
+        // Arrange
+        transaction.executeWithoutResult(status -> {
+            create("1111111111", fantasyId, OLDER);
+            create("2222222222", fantasyId, NEWER);
+        });
+
+        // Act: drama has no stats row yet
+        transaction.executeWithoutResult(status -> {
+            Book moved = entityManager.find(Book.class, "2222222222");
+            moved.setGenre(entityManager.getReference(Genre.class, dramaId));
+            eventPublisher.publishEvent(BookChangedEvent.updated(userId, moved.getIsbn(), fantasyId, dramaId,
+                    moved.getTitle(), moved.getSynopsis()));
+        });
+
+        // Assert
+        List<GenreStatsDTO> stats = genreStatsRepository.findSummariesByUserId(userId);
+        assertStats(stats.get(0), fantasyId, 1, OLDER);
+        assertStats(stats.get(1), dramaId, 1, NEWER);
+    }
+
+    @Test
+    void onBookChanged_shouldDecrementOnDelete() {
+        // Arrange
+        transaction.executeWithoutResult(status -> create("1111111111", fantasyId, OLDER));
+
+        // Act
+        transaction.executeWithoutResult(status -> {
+            entityManager.remove(entityManager.find(Book.class, "1111111111"));
+            eventPublisher.publishEvent(BookChangedEvent.deleted(userId, "1111111111", fantasyId));
+        });
+
+        // Assert
+        assertStats(genreStatsRepository.findSummariesByUserId(userId).get(0), fantasyId, 0, null);
+    }
+
+    @Test
+    void onBookChanged_rolledBackWrites_shouldLeaveCountsUntouched() {
+        // Act
+        transaction.executeWithoutResult(status -> {
+            create("1111111111", fantasyId, OLDER);
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertStats(genreStatsRepository.findSummariesByUserId(userId).get(0), fantasyId, 0, null);
+    }
+
+    @Test
+    void findSummariesByUserId_forGenreWithoutStatsRow_shouldCountItsBooksLive() {
+        // Arrange: books written straight to the table, as the seed script does, so drama has no stats row
+        transaction.executeWithoutResult(status -> {
+            entityManager.persist(book("1111111111", dramaId, OLDER));
+            entityManager.persist(book("2222222222", dramaId, NEWER));
+        });
+
+        // Act
+        List<GenreStatsDTO> stats = genreStatsRepository.findSummariesByUserId(userId);
+
+        // Assert
+        assertStats(stats.get(0), fantasyId, 0, null);
+        assertStats(stats.get(1), dramaId, 2, NEWER);
+    }
+
+    @Test
+    void onBookChanged_withoutTransaction_shouldFail() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () ->
+                eventPublisher.publishEvent(BookChangedEvent.deleted(userId, "1111111111", fantasyId)));
+    }
+
+    @Test
+    void onBookChanged_whenTwoWritersCreateTheMissingRow_shouldCountBoth() throws Exception {
+        // Arrange: both writers find no drama row before either inserts it
+        CyclicBarrier bothMissed = new CyclicBarrier(2);
+        AtomicInteger misses = new AtomicInteger();
+        // Spring Data repositories are JDK proxies, spied through a default answer that delegates to them
+        Answer<?> delegate = mockingDetails(genreStatsRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Object updated = delegate.answer(invocation);
+            if ((int) updated == 0 && misses.incrementAndGet() <= 2) {
+                bothMissed.await(5, TimeUnit.SECONDS);
+            }
+            return updated;
+        }).when(genreStatsRepository).applyDelta(anyLong(), anyLong());
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> writes = new ArrayList<>();
+        try {
+            for (String isbn : List.of("1111111111", "2222222222")) {
+                writes.add(executor.submit(() -> transaction.executeWithoutResult(status -> create(isbn, dramaId, OLDER))));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        // Assert: neither write failed on the primary key
+        for (Future<?> write : writes) {
+            write.get();
+        }
+        assertStats(genreStatsRepository.findSummariesByUserId(userId).get(1), dramaId, 2, OLDER);
+    }
+
+    private void create(String isbn, Long genreId, LocalDateTime createdAt) {
+        Book book = book(isbn, genreId, createdAt);
+        entityManager.persist(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(userId, isbn, genreId, book.getTitle(), book.getSynopsis()));
+    }
+
+    private Book book(String isbn, Long genreId, LocalDateTime createdAt) {
+        return Book.builder()
+                .isbn(isbn)
+                .title("Title " + isbn)
+                .synopsis("A synopsis long enough")
+                .publishedDate(LocalDate.of(2020, 1, 1))
+                .createdAt(createdAt)
+                .genre(entityManager.getReference(Genre.class, genreId))
+                .user(entityManager.getReference(User.class, userId))
+                .build();
+    }
+
+    private static void assertStats(GenreStatsDTO stats, Long genreId, long bookCount, LocalDateTime latest) {
+        assertEquals(genreId, stats.getId());
+        assertEquals(bookCount, stats.getBookCount());
+        assertEquals(latest, stats.getLatestCreatedAt());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserDetailsCache.class, UserCacheInvalidationListener.class})
+class SchemaIndexVerifierTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void findMissingIndexes_shouldOnlyReportIndexesTheEntitiesCannotDeclare() throws Exception {
+        // Arrange
+        SchemaIndexVerifier verifier = new SchemaIndexVerifier(dataSource, true, true);
+
+        // Act
+        List<String> missing = verifier.findMissingIndexes();
+
+        // Assert: the computed column index only exists in the SQL Server migration
+        assertEquals(List.of("genres.ix_genres_user_name_upper"), missing);
+    }
+
+    @Test
+    void verify_shouldFailStartupWhenConfiguredTo() {
+        // Arrange
+        SchemaIndexVerifier strict = new SchemaIndexVerifier(dataSource, true, true);
+        SchemaIndexVerifier lenient = new SchemaIndexVerifier(dataSource, true, false);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, strict::verify);
+        assertDoesNotThrow(lenient::verify);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.bookapp.components;
+
+import com.example.bookapp.dto.output.BookSuggestionDTO;
+import com.example.bookapp.events.BookChangedEvent;
+import com.example.bookapp.repositories.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TitleAutocompleteIndexTest {
+
+    private BookRepository bookRepository;
+    private TitleAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.findTitlesByUserId(1L)).thenReturn(List.of(
+                new Object[]{"1", "Effective Java"},
+                new Object[]{"2", "Java Concurrency in Practice"},
+                new Object[]{"3", "Cien años de soledad"},
+                new Object[]{"4", "JavaScript: The Good Parts"}));
+        index = new TitleAutocompleteIndex(bookRepository, 100, Duration.ofMinutes(30));
+    }
+
+    @Test
+    void suggest_shouldRankTitleStartsBeforeLaterWordsAndLoadOnce() {
+        // Act
+        List<String> first = isbns(index.suggest(1L, "jav", 10));
+        List<String> second = isbns(index.suggest(1L, "Java ", 10));
+
+        // Assert
+        assertEquals(List.of("2", "4", "1"), first);
+        assertEquals(List.of("2", "4", "1"), second);
+        verify(bookRepository, times(1)).findTitlesByUserId(1L);
+    }
+
+    @Test
+    void suggest_afterTheTtl_shouldReloadEvenAUserWhoKeepsTyping() {
+        // Arrange: expired as soon as it is loaded
+        TitleAutocompleteIndex expiring = new TitleAutocompleteIndex(bookRepository, 100, Duration.ZERO);
+
+        // Act
+        expiring.suggest(1L, "jav", 10);
+        expiring.suggest(1L, "java", 10);
+
+        // Assert
+        verify(bookRepository, times(2)).findTitlesByUserId(1L);
+    }
+
+    @Test
+    void suggest_shouldIgnoreCaseAndAccentsAndRespectLimit() {
+        // Act
+        List<String> accents = isbns(index.suggest(1L, "ANOS", 10));
+        List<String> limited = isbns(index.suggest(1L, "java", 1));
+
+        // Assert
+        assertEquals(List.of("3"), accents);
+        assertEquals(List.of("2"), limited);
+    }
+
+    @Test
+    void onBookChanged_shouldApplyWritesToLoadedUsers() {
+        // Arrange
+        index.suggest(1L, "x", 10);
+
+        // Act
+        index.onBookChanged(BookChangedEvent.created(1L, "5", 10L, "Java Performance", "Tuning the JVM"));
+        index.onBookChanged(BookChangedEvent.updated(1L, "1", 10L, 10L, "Effective Kotlin", "Best practices"));
+        index.onBookChanged(BookChangedEvent.deleted(1L, "4", 10L));
+
+        // Assert
+        assertEquals(List.of("2", "5"), isbns(index.suggest(1L, "java", 10)));
+        assertEquals(List.of("1"), isbns(index.suggest(1L, "kot", 10)));
+    }
+
+    @Test
+    void suggest_blankPrefix_shouldNotLoadTitles() {
+        // Act
+        List<BookSuggestionDTO> suggestions = index.suggest(1L, "  ", 10);
+
+        // Assert
+        assertTrue(suggestions.isEmpty());
+        verifyNoInteractions(bookRepository);
+    }
+
+    private static List<String> isbns(List<BookSuggestionDTO> suggestions) {
+        return suggestions.stream().map(BookSuggestionDTO::getIsbn).toList();
+    }
+}
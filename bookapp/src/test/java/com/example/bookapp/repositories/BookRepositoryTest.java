@@ -0,0 +1,243 @@
+package com.example.bookapp.repositories;
+
+import com.example.bookapp.dto.input.BookFilterDTO;
+import com.example.bookapp.dto.output.BookResponseDTO;
+import com.example.bookapp.entities.Book;
+import com.example.bookapp.entities.Genre;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserDetailsCache.class, UserCacheInvalidationListener.class})
+class BookRepositoryTest {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private Genre firstGenre;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().username("abel").email("abel@example.com").password("hashed").build();
+        entityManager.persist(user);
+
+        // One genre per book: the worst case for per-row genre loading
+        for (int i = 0; i < PAGE_SIZE + 10; i++) {
+            Genre genre = Genre.builder().name("Genre " + i).user(user).build();
+            entityManager.persist(genre);
+            if (firstGenre == null) firstGenre = genre;
+
+            entityManager.persist(Book.builder()
+                    .isbn(String.format("978%010d", i))
+                    .title("Title " + i)
+                    .genre(i < PAGE_SIZE ? genre : firstGenre)
+                    .publishedDate(LocalDate.of(2020, 1, 1))
+                    .synopsis("Synopsis " + i)
+                    .user(user)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findResponsesByUserId_shouldLoadFullPageWithSingleSelect() {
+        // Act
+        Slice<BookResponseDTO> page = bookRepository.findResponsesByUserId(user.getId(), PageRequest.of(0, PAGE_SIZE));
+
+        // Assert
+        assertEquals(PAGE_SIZE, page.getContent().size());
+        assertTrue(page.hasNext());
+        assertTrue(page.getContent().stream().allMatch(dto -> dto.getGenre().startsWith("Genre ")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findResponsesByGenreIdAndUserId_shouldNotLoadGenrePerRow() {
+        // Act
+        Slice<BookResponseDTO> page = bookRepository.findResponsesByGenreIdAndUserId(
+                firstGenre.getId(), user.getId(), PageRequest.of(0, PAGE_SIZE));
+
+        // Assert
+        assertEquals(11, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(dto -> dto.getGenre().equals("Genre 0")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void keysetPages_shouldWalkAllBooksInOrderWithoutCounting() {
+        // Arrange
+        List<BookResponseDTO> seen = new ArrayList<>();
+        Limit limit = Limit.of(7);
+
+        // Act
+        List<BookResponseDTO> page = bookRepository.findFirstKeysetPage(user.getId(), limit);
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            BookResponseDTO last = page.get(page.size() - 1);
+            page = bookRepository.findKeysetPageAfter(user.getId(), last.getCreatedAt(), last.getIsbn(), limit);
+        }
+
+        // Assert
+        assertEquals(PAGE_SIZE + 10, seen.size());
+        assertEquals(PAGE_SIZE + 10, seen.stream().map(BookResponseDTO::getIsbn).distinct().count());
+        List<BookResponseDTO> sorted = new ArrayList<>(seen);
+        sorted.sort(Comparator.comparing(BookResponseDTO::getCreatedAt).thenComparing(BookResponseDTO::getIsbn));
+        assertEquals(sorted, seen);
+        assertEquals(10, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findResponsesByUserIdAndIsbnIn_shouldResolveManyIsbnsWithSingleSelect() {
+        // Act
+        List<BookResponseDTO> books = bookRepository.findResponsesByUserIdAndIsbnIn(user.getId(),
+                List.of(String.format("978%010d", 3), String.format("978%010d", 42), "9999999999999"));
+
+        // Assert
+        assertEquals(2, books.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findByFilter_shouldCombineGivenFiltersAndSortInSingleSelect() {
+        // Arrange
+        BookFilterDTO filter = new BookFilterDTO();
+        filter.setUserId(user.getId());
+        filter.setGenreIds(List.of(firstGenre.getId()));
+        filter.setPublishedTo(LocalDate.of(2020, 12, 31));
+        filter.setHasCover(false);
+        filter.setIncludeSynopsis(false);
+        Sort sort = Sort.by(Sort.Direction.DESC, "title").and(Sort.by(Sort.Direction.DESC, "isbn"));
+
+        // Act
+        Slice<BookResponseDTO> page = bookRepository.findByFilter(filter, PageRequest.of(0, 5, sort));
+
+        // Assert
+        assertEquals(List.of("Title 59", "Title 58", "Title 57", "Title 56", "Title 55"),
+                page.getContent().stream().map(BookResponseDTO::getTitle).toList());
+        assertTrue(page.hasNext());
+        assertNull(page.getContent().get(0).getSynopsis());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findByFilter_shouldReturnNothingWhenAFilterExcludesEverything() {
+        // Arrange
+        BookFilterDTO filter = new BookFilterDTO();
+        filter.setUserId(user.getId());
+        filter.setHasCover(true);
+
+        // Act
+        Slice<BookResponseDTO> page = bookRepository.findByFilter(filter, PageRequest.of(0, 5, Sort.by("createdAt")));
+
+        // Assert
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void countByGenreForUser_shouldGroupInOneQuery() {
+        // Act
+        List<Object[]> rows = bookRepository.countByGenreForUser(user.getId());
+
+        // Assert
+        assertEquals(PAGE_SIZE, rows.size());
+        assertEquals(PAGE_SIZE + 10, rows.stream().mapToLong(row -> (Long) row[1]).sum());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void summaries_shouldLeaveSynopsisOut() {
+        // Act
+        Slice<BookResponseDTO> full = bookRepository.findListingByUserId(user.getId(), true, PageRequest.of(0, 5));
+        Slice<BookResponseDTO> summaries = bookRepository.findListingByUserId(user.getId(), false, PageRequest.of(0, 5));
+        List<BookResponseDTO> keyset = bookRepository.findFirstKeysetSummaryPage(user.getId(), Limit.of(5));
+
+        // Assert
+        assertTrue(full.getContent().stream().allMatch(dto -> dto.getSynopsis() != null));
+        assertTrue(summaries.getContent().stream().allMatch(dto -> dto.getSynopsis() == null && dto.getGenre() != null));
+        assertTrue(keyset.stream().allMatch(dto -> dto.getSynopsis() == null));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void saveAndFlush_newBook_shouldInsertWithoutSelectingFirst() {
+        // Arrange
+        Book book = newBook("9790000000001");
+
+        // Act
+        bookRepository.saveAndFlush(book);
+
+        // Assert
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(book.isNew());
+    }
+
+    @Test
+    void saveAndFlush_duplicateIsbn_shouldSurfaceUniqueViolation() {
+        // Arrange
+        Book duplicate = newBook(String.format("978%010d", 0));
+
+        // Act
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> bookRepository.saveAndFlush(duplicate));
+
+        // Assert
+        ConstraintViolationException cause = assertInstanceOf(ConstraintViolationException.class, e.getCause());
+        assertEquals(ConstraintViolationException.ConstraintKind.UNIQUE, cause.getKind());
+    }
+
+    private Book newBook(String isbn) {
+        return Book.builder()
+                .isbn(isbn)
+                .title("New")
+                .genre(entityManager.getReference(Genre.class, firstGenre.getId()))
+                .publishedDate(LocalDate.of(2021, 1, 1))
+                .synopsis("Synopsis")
+                .user(entityManager.getReference(User.class, user.getId()))
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.bookapp.security;
+
+import com.example.bookapp.entities.User;
+import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.security.jwt.JwtAuthenticationFilter;
+import com.example.bookapp.security.jwt.JwtService;
+import com.example.bookapp.security.jwt.TokenEpochRegistry;
+import com.example.bookapp.security.jwt.TokenRejection;
+import com.example.bookapp.security.jwt.TokenRevocationList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "4E6F795265616C6C79536563726574506C656173654368616E6765546869734B6579";
+
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private UserRepository userRepository;
+    private TokenEpochRegistry tokenEpochRegistry;
+    private TokenRevocationList tokenRevocationList;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, Duration.ofMinutes(3));
+        userDetailsService = mock(UserDetailsService.class);
+        userRepository = mock(UserRepository.class);
+        tokenEpochRegistry = new TokenEpochRegistry(userRepository, mock(UserDetailsCache.class), 100, Duration.ofMinutes(1));
+        tokenRevocationList = mock(TokenRevocationList.class);
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenEpochRegistry, tokenRevocationList);
+        ReflectionTestUtils.setField(filter, "statelessEnabled", true);
+        ReflectionTestUtils.setField(filter, "recheckWindow", Duration.ofSeconds(30));
+
+        user = User.builder().id(1L).email("abel@example.com").username("abel").password("hashed").build();
+        when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(new CustomUserDetails(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessMode_shouldLoadUserOnlyUntilEpochIsKnown() throws Exception {
+        String token = tokenFor(user);
+
+        authenticate(token);
+        authenticate(token);
+
+        verify(userDetailsService, times(1)).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    void statelessMode_shouldRejectTokenFromAnOlderEpoch() throws Exception {
+        String token = tokenFor(user);
+        authenticate(token);
+
+        tokenEpochRegistry.advance(user);
+        Authentication authentication = authenticate(token);
+
+        assertNull(authentication);
+        verify(userRepository).advanceTokenEpoch(user.getId());
+        verify(userDetailsService, times(2)).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    void defaultMode_shouldLoadUserOnEveryRequest() throws Exception {
+        ReflectionTestUtils.setField(filter, "statelessEnabled", false);
+        String token = tokenFor(user);
+
+        assertNotNull(authenticate(token));
+        assertNotNull(authenticate(token));
+
+        verify(userDetailsService, times(2)).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    void shouldRejectRevokedToken() throws Exception {
+        String token = tokenFor(user);
+        String jti = jwtService.verify(token).tokenId();
+        when(tokenRevocationList.isRevoked(jti)).thenReturn(true);
+
+        assertNull(authenticate(token));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void shouldCountRejectionsAndWritePreEncodedBody() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/books");
+        request.addHeader("Authorization", "Bearer not-a-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(401, response.getStatus());
+        assertEquals("{\"error\": \"Malformed token\"}", response.getContentAsString());
+        assertEquals(1L, filter.getRejectionCounts().get(TokenRejection.MALFORMED));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private String tokenFor(User user) {
+        Map<String, Object> claims = Map.of(
+                "userId", user.getId(),
+                "username", user.getUsername(),
+                "epoch", user.getTokenEpoch()
+        );
+        return jwtService.generateToken(claims, new CustomUserDetails(user));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/books");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bookapp.security;
+
+import com.example.bookapp.security.jwt.JwtClaims;
+import com.example.bookapp.security.jwt.JwtService;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "4E6F795265616C6C79536563726574506C656173654368616E6765546869734B6579";
+    private static final String OTHER_SECRET = "4F746865725365637265744B6579466F7254657374696E675075727073657321";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, Duration.ofMinutes(3));
+        userDetails = new User("abel@example.com", "", Collections.emptyList());
+    }
+
+    @Test
+    void verify_shouldReturnAllClaimsFromASingleParse() {
+        String token = jwtService.generateToken(Map.of("userId", 1L, "username", "abel"), userDetails);
+
+        JwtClaims claims = jwtService.verify(token);
+
+        assertEquals("abel@example.com", claims.subject());
+        assertEquals(1L, claims.userId());
+        assertEquals("abel", claims.username());
+        assertNotNull(claims.expiresAt());
+        assertTrue(jwtService.isTokenValid(claims, userDetails));
+    }
+
+    @Test
+    void verify_shouldRejectTokenSignedWithAnotherKey() {
+        String token = new JwtService(OTHER_SECRET, Duration.ofMinutes(3)).generateToken(Map.of(), userDetails);
+
+        assertThrows(SignatureException.class, () -> jwtService.verify(token));
+    }
+
+    @Test
+    void isTokenValid_shouldBeFalseForAnotherUser() {
+        String token = jwtService.generateToken(Map.of(), userDetails);
+        UserDetails other = new User("other@example.com", "", Collections.emptyList());
+
+        assertFalse(jwtService.isTokenValid(jwtService.verify(token), other));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.bookapp.security;
+
+import com.example.bookapp.entities.RevokedToken;
+import com.example.bookapp.repositories.RevokedTokenRepository;
+import com.example.bookapp.security.jwt.TokenRevocationList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private RevokedTokenRepository revokedTokenRepository;
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        tokenRevocationList = new TokenRevocationList(revokedTokenRepository, 1_000, 0.01, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void revoke_shouldPersistAndRejectTheTokenLocally() {
+        tokenRevocationList.revoke("jti-1", Instant.now().plusSeconds(60));
+
+        assertTrue(tokenRevocationList.isRevoked("jti-1"));
+        assertFalse(tokenRevocationList.isRevoked("jti-2"));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    void sync_shouldPickUpRevocationsFromOtherNodes() {
+        RevokedToken remote = new RevokedToken("jti-remote", Instant.now().plusSeconds(60), Instant.now());
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(remote));
+
+        tokenRevocationList.sync();
+
+        assertTrue(tokenRevocationList.isRevoked("jti-remote"));
+    }
+
+    @Test
+    void prune_shouldForgetTokensThatHaveExpired() {
+        RevokedToken expired = new RevokedToken("jti-old", Instant.now().minusMillis(1), Instant.now().minusSeconds(60));
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(expired));
+        tokenRevocationList.sync();
+
+        tokenRevocationList.prune();
+
+        assertFalse(tokenRevocationList.isRevoked("jti-old"));
+        verify(revokedTokenRepository).deleteExpired(any());
+        verify(revokedTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    void isRevoked_filterHitNotKnownLocally_shouldBeConfirmedAgainstTheTableOnce() {
+        // Arrange: the rebuilt filter holds a jti whose answer is not cached on this node
+        when(revokedTokenRepository.findUnexpiredJtis(any())).thenReturn(List.of("jti-db"));
+        when(revokedTokenRepository.existsById("jti-db")).thenReturn(true);
+        tokenRevocationList.prune();
+
+        // Act & Assert
+        assertTrue(tokenRevocationList.isRevoked("jti-db"));
+        assertTrue(tokenRevocationList.isRevoked("jti-db"));
+        verify(revokedTokenRepository, times(1)).existsById("jti-db");
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.bookapp.security;
+
+import com.example.bookapp.entities.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.*;
+
+class UserCacheInvalidationListenerTest {
+
+    private UserDetailsCache userDetailsCache;
+    private UserCacheInvalidationListener listener;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = mock(UserDetailsCache.class);
+        listener = new UserCacheInvalidationListener(userDetailsCache);
+        user = User.builder().id(1L).email("abel@example.com").username("abel").password("hashed").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void onUserWritten_insideTransaction_shouldEvictOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        listener.onUserWritten(user);
+
+        // Assert
+        verifyNoInteractions(userDetailsCache);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(userDetailsCache).invalidate("abel@example.com");
+    }
+
+    @Test
+    void onUserWritten_withoutTransaction_shouldEvictImmediately() {
+        // Act
+        listener.onUserWritten(user);
+
+        // Assert
+        verify(userDetailsCache).invalidate("abel@example.com");
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bookapp.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtPrefilterTest {
+
+    private static final String SECRET = "4E6F795265616C6C79536563726574506C656173654368616E6765546869734B6579";
+    private static final String BEARER = "Bearer ";
+
+    @Test
+    void check_shouldLetAValidTokenThrough() {
+        String token = tokenExpiringAt(System.currentTimeMillis() + 60_000);
+
+        assertNull(JwtPrefilter.check(BEARER + token, BEARER.length(), System.currentTimeMillis()));
+    }
+
+    @Test
+    void check_shouldRejectExpiredTokenWithoutVerifyingIt() {
+        String token = tokenExpiringAt(System.currentTimeMillis() - 60_000);
+
+        assertEquals(TokenRejection.EXPIRED, JwtPrefilter.check(BEARER + token, BEARER.length(), System.currentTimeMillis()));
+    }
+
+    @Test
+    void check_shouldRejectWrongStructure() {
+        long now = System.currentTimeMillis();
+
+        assertEquals(TokenRejection.MALFORMED, JwtPrefilter.check(BEARER, BEARER.length(), now));
+        assertEquals(TokenRejection.MALFORMED, JwtPrefilter.check(BEARER + "abc", BEARER.length(), now));
+        assertEquals(TokenRejection.MALFORMED, JwtPrefilter.check(BEARER + "eyJa.eyJb", BEARER.length(), now));
+        assertEquals(TokenRejection.MALFORMED, JwtPrefilter.check(BEARER + "eyJa..sig", BEARER.length(), now));
+        assertEquals(TokenRejection.MALFORMED, JwtPrefilter.check(BEARER + "eyJa.eyJb.c.d", BEARER.length(), now));
+        assertEquals(TokenRejection.MALFORMED, JwtPrefilter.check(BEARER + "abcd.eyJb.sig", BEARER.length(), now));
+    }
+
+    @Test
+    void check_shouldRejectSegmentsThatAreNotBase64Url() {
+        long now = System.currentTimeMillis();
+
+        assertEquals(TokenRejection.BAD_ENCODING, JwtPrefilter.check(BEARER + "eyJ+.eyJb.sig", BEARER.length(), now));
+        assertEquals(TokenRejection.BAD_ENCODING, JwtPrefilter.check(BEARER + "eyJa.eyJb.si=g", BEARER.length(), now));
+        assertEquals(TokenRejection.BAD_ENCODING, JwtPrefilter.check(BEARER + "eyJab.eyJb.sig", BEARER.length(), now));
+    }
+
+    @Test
+    void check_shouldIgnoreExpInsideStringValues() {
+        String payload = encode("{\"sub\":\"a\\\"exp\\\":1\",\"exp\":" + (System.currentTimeMillis() / 1000 + 60) + "}");
+        String token = encode("{\"alg\":\"HS256\"}") + "." + payload + ".c2ln";
+
+        assertNull(JwtPrefilter.check(token, 0, System.currentTimeMillis()));
+    }
+
+    private static String tokenExpiringAt(long expiresAtMillis) {
+        return Jwts.builder()
+                .setSubject("abel@example.com")
+                .setExpiration(new Date(expiresAtMillis))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
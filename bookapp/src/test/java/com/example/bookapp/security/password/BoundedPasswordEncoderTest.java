@@ -0,0 +1,68 @@
+package com.example.bookapp.security.password;
+
+import com.example.bookapp.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) encoder.destroy();
+    }
+
+    @Test
+    void encode_shouldProduceHashThatMatches() {
+        encoder = new BoundedPasswordEncoder(4, 1, 1);
+
+        String hash = encoder.encode("abel123");
+
+        assertTrue(encoder.matches("abel123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+    }
+
+    @Test
+    void encode_shouldRejectWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        encoder = new BoundedPasswordEncoder(slow, 4, 1, 1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (encoder.getQueuedTasks() == 0) Thread.onSpinWait();
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> encoder.encode("c"));
+        assertEquals(1, ex.getRetryAfterSeconds());
+
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void upgradeEncoding_shouldBeTrueOnlyWhenCostIsLower() {
+        encoder = new BoundedPasswordEncoder(5, 1, 1);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("abel123")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("abel123")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("abel123")));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.bookapp.security.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(
+                route("login", "/api/v1/auth/login", RateLimitProperties.KeyType.IP, 3),
+                route("writes", "/api/v1/**", RateLimitProperties.KeyType.USER, 2)));
+        filter = new RateLimitFilter(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void login_shouldBeLimitedPerIp() throws Exception {
+        // Arrange / Act
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send("POST", "/api/v1/auth/login", "10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse rejected = send("POST", "/api/v1/auth/login", "10.0.0.1");
+        MockHttpServletResponse otherClient = send("POST", "/api/v1/auth/login", "10.0.0.2");
+
+        // Assert
+        assertEquals(429, rejected.getStatus());
+        assertEquals("20", rejected.getHeader("Retry-After"));
+        assertEquals("{\"error\": \"Too many requests\"}", rejected.getContentAsString());
+        assertEquals(200, otherClient.getStatus());
+        assertEquals(1, filter.getRejectedCount());
+    }
+
+    @Test
+    void writes_shouldBeLimitedPerUserRegardlessOfIp() throws Exception {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("abel@example.com", null, List.of()));
+
+        // Act
+        int first = sendThroughBothStages("POST", "/api/v1/books", "10.0.0.1").getStatus();
+        int second = sendThroughBothStages("DELETE", "/api/v1/books/123", "10.0.0.2").getStatus();
+        int third = sendThroughBothStages("PATCH", "/api/v1/books/123", "10.0.0.3").getStatus();
+
+        // Assert
+        assertEquals(200, first);
+        assertEquals(200, second);
+        assertEquals(429, third);
+    }
+
+    @Test
+    void ipStage_shouldLeaveUserRoutesToTheUserStage() throws Exception {
+        // Act: the stage before authentication has no principal, so it must not charge user routes by IP
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send("POST", "/api/v1/books", "10.0.0.1").getStatus());
+        }
+
+        // Assert
+        assertEquals(0, filter.getActiveBuckets());
+    }
+
+    @Test
+    void bindTo_shouldPublishBucketsAndRejectionsPerRoute() throws Exception {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            send("POST", "/api/v1/auth/login", "10.0.0.1");
+        }
+
+        // Assert
+        assertEquals(1.0, registry.get("rate.limit.rejected").tag("route", "login").functionCounter().count());
+        assertEquals(0.0, registry.get("rate.limit.rejected").tag("route", "writes").functionCounter().count());
+        assertEquals(1.0, registry.get("rate.limit.buckets").gauge().value());
+    }
+
+    @Test
+    void unmatchedMethods_shouldPassThrough() throws Exception {
+        // Act / Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send("GET", "/api/v1/books", "10.0.0.1").getStatus());
+        }
+        assertEquals(0, filter.getActiveBuckets());
+    }
+
+    private MockHttpServletResponse send(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    // Same order as the security chain: IP stage, (authentication), user stage
+    private MockHttpServletResponse sendThroughBothStages(String method, String uri, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> filter.userStage().doFilter(req, res, new MockFilterChain()));
+        return response;
+    }
+
+    private static RateLimitProperties.Route route(String name, String path, RateLimitProperties.KeyType key, long capacity) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setName(name);
+        route.setPath(path);
+        route.setMethods(List.of("POST", "PATCH", "DELETE"));
+        route.setKey(key);
+        route.setCapacity(capacity);
+        route.setRefillTokens(capacity);
+        route.setRefillPeriod(Duration.ofMinutes(1));
+        return route;
+    }
+}
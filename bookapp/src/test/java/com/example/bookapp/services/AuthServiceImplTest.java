@@ -1,18 +1,23 @@
 package com.example.bookapp.services;
 
 import com.example.bookapp.dto.input.LoginRequestDTO;
+import com.example.bookapp.dto.input.RefreshTokenRequestDTO;
 import com.example.bookapp.dto.output.LoginResponseDTO;
 import com.example.bookapp.entities.User;
 import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.security.CustomUserDetails;
+import com.example.bookapp.security.jwt.JwtClaims;
 import com.example.bookapp.security.jwt.JwtService;
+import com.example.bookapp.security.jwt.TokenEpochRegistry;
+import com.example.bookapp.security.jwt.TokenRevocationList;
 import com.example.bookapp.services.impl.AuthServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,7 +27,9 @@ class AuthServiceImplTest {
 
     private AuthenticationManager authenticationManager;
     private JwtService jwtService;
-    private UserDetailsService userDetailsService;
+    private RefreshTokenService refreshTokenService;
+    private TokenRevocationList tokenRevocationList;
+    private TokenEpochRegistry tokenEpochRegistry;
     private UserRepository userRepository;
 
     private AuthServiceImpl authService;
@@ -31,10 +38,13 @@ class AuthServiceImplTest {
     void setUp() {
         authenticationManager = mock(AuthenticationManager.class);
         jwtService = mock(JwtService.class);
-        userDetailsService = mock(UserDetailsService.class);
+        refreshTokenService = mock(RefreshTokenService.class);
+        tokenRevocationList = mock(TokenRevocationList.class);
+        tokenEpochRegistry = mock(TokenEpochRegistry.class);
         userRepository = mock(UserRepository.class);
 
-        authService = new AuthServiceImpl(authenticationManager, jwtService, userDetailsService, userRepository);
+        authService = new AuthServiceImpl(authenticationManager, jwtService, refreshTokenService, tokenRevocationList,
+                tokenEpochRegistry, userRepository);
     }
 
     @Test
@@ -53,12 +63,11 @@ class AuthServiceImplTest {
         user.setEmail(email);
         user.setUsername("abel");
 
-        UserDetails userDetails = mock(UserDetails.class);
-        when(userDetails.getUsername()).thenReturn(email);
-
-        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
-        when(userDetailsService.loadUserByUsername(email)).thenReturn(userDetails);
-        when(jwtService.generateToken(anyMap(), eq(userDetails))).thenReturn(expectedToken);
+        CustomUserDetails userDetails = new CustomUserDetails(user);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        when(jwtService.generateToken(anyMap(), any(CustomUserDetails.class))).thenReturn(expectedToken);
+        when(refreshTokenService.issue(user)).thenReturn("refresh-token");
 
         // Act
         LoginResponseDTO result = authService.login(request);
@@ -66,30 +75,76 @@ class AuthServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(expectedToken, result.getToken());
+        assertEquals("refresh-token", result.getRefreshToken());
 
         // Verify interactions
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(userRepository).findByEmail(email);
-        verify(userDetailsService).loadUserByUsername(email);
-        verify(jwtService).generateToken(anyMap(), eq(userDetails));
+        verify(jwtService).generateToken(anyMap(), any(CustomUserDetails.class));
+        verify(refreshTokenService).issue(user);
+    }
+
+    @Test
+    void refresh_ShouldRotateTokenWithoutAuthenticatingAgain() {
+        // Arrange
+        User user = User.builder().id(1L).email("abel@example.com").username("abel").build();
+        RefreshTokenRequestDTO request = new RefreshTokenRequestDTO();
+        request.setRefreshToken("old-refresh-token");
+
+        when(refreshTokenService.rotate("old-refresh-token"))
+                .thenReturn(new RefreshTokenService.Rotation(user, "new-refresh-token"));
+        when(jwtService.generateToken(anyMap(), any(CustomUserDetails.class))).thenReturn("jwt.token.aqui");
+
+        // Act
+        LoginResponseDTO result = authService.refresh(request);
+
+        // Assert
+        assertEquals("jwt.token.aqui", result.getToken());
+        assertEquals("new-refresh-token", result.getRefreshToken());
+        verifyNoInteractions(authenticationManager);
     }
 
     @Test
-    void login_ShouldThrowException_WhenUserNotFound() {
+    void login_ShouldThrowException_WhenCredentialsAreInvalid() {
         // Arrange
         LoginRequestDTO request = new LoginRequestDTO();
         request.setEmail("notfound@example.com");
         request.setPassword("secret");
 
-        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.empty());
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
 
         // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> authService.login(request));
-        assertEquals("User not found", exception.getMessage());
-
-        verify(authenticationManager).authenticate(any());
-        verify(userRepository).findByEmail(request.getEmail());
+        assertThrows(BadCredentialsException.class, () -> authService.login(request));
         verifyNoInteractions(jwtService);
-        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void logout_ShouldRevokeAccessTokenAndRefreshTokenFamily() {
+        // Arrange
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        JwtClaims claims = new JwtClaims("jti-1", "abel@example.com", 1L, "abel", Instant.now(), expiresAt, 0L);
+
+        // Act
+        authService.logout(claims, "refresh-token");
+
+        // Assert
+        verify(tokenRevocationList).revoke("jti-1", expiresAt);
+        verify(refreshTokenService).revoke("refresh-token");
+    }
+
+    @Test
+    void logoutAll_ShouldAdvanceTheEpochAndRevokeEveryRefreshToken() {
+        // Arrange
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        JwtClaims claims = new JwtClaims("jti-1", "abel@example.com", 1L, "abel", Instant.now(), expiresAt, 0L);
+        User user = User.builder().id(1L).email("abel@example.com").username("abel").build();
+        when(userRepository.findByEmail("abel@example.com")).thenReturn(Optional.of(user));
+
+        // Act
+        authService.logoutAll(claims);
+
+        // Assert
+        verify(tokenEpochRegistry).advance(user);
+        verify(refreshTokenService).revokeAll(1L);
+        verify(tokenRevocationList).revoke("jti-1", expiresAt);
     }
 }
@@ -0,0 +1,113 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.components.CsvRecordReader;
+import com.example.bookapp.entities.Book;
+import com.example.bookapp.entities.Genre;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import com.example.bookapp.services.impl.BookExportServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({BookExportServiceImpl.class, UserDetailsCache.class, UserCacheInvalidationListener.class})
+class BookExportServiceImplTest {
+
+    @Autowired
+    private BookExportService bookExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().username("abel").email("abel@example.com").password("hashed").build();
+        User other = User.builder().username("other").email("other@example.com").password("hashed").build();
+        entityManager.persist(user);
+        entityManager.persist(other);
+        Genre drama = Genre.builder().name("Drama").user(user).build();
+        Genre otherGenre = Genre.builder().name("Drama").user(other).build();
+        entityManager.persist(drama);
+        entityManager.persist(otherGenre);
+
+        entityManager.persist(book("9780000000002", "Second", drama, user, LocalDateTime.of(2024, 1, 2, 10, 0),
+                "Plain synopsis text"));
+        entityManager.persist(book("9780000000001", "First, \"quoted\"", drama, user, LocalDateTime.of(2024, 1, 1, 10, 0),
+                "Line one\nline two, with comma"));
+        entityManager.persist(book("9780000000003", "Not mine", otherGenre, other, LocalDateTime.of(2024, 1, 1, 9, 0),
+                "Belongs to someone else"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportJsonLines_shouldWriteOneObjectPerLineOldestFirst() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        bookExportService.export(user.getId(), BookExportService.Format.JSON_LINES, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("9780000000001", first.get("isbn").asText());
+        assertEquals("Drama", first.get("genre").asText());
+        assertEquals("2020-01-01", first.get("publishedDate").asText());
+        assertEquals("Line one\nline two, with comma", first.get("synopsis").asText());
+        assertEquals("9780000000002", objectMapper.readTree(lines[1]).get("isbn").asText());
+    }
+
+    @Test
+    void exportCsv_shouldQuoteFieldsThatNeedIt() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        bookExportService.export(user.getId(), BookExportService.Format.CSV, out);
+
+        // Assert
+        try (CsvRecordReader reader = new CsvRecordReader(new StringReader(out.toString(StandardCharsets.UTF_8)))) {
+            assertEquals(List.of("isbn", "title", "genre", "publishedDate", "synopsis", "coverImagePath", "createdAt"),
+                    reader.next());
+            List<String> first = reader.next();
+            assertEquals("First, \"quoted\"", first.get(1));
+            assertEquals("Line one\nline two, with comma", first.get(4));
+            assertEquals("", first.get(5));
+            assertEquals("9780000000002", reader.next().get(0));
+            assertNull(reader.next());
+        }
+    }
+
+    private static Book book(String isbn, String title, Genre genre, User owner, LocalDateTime createdAt, String synopsis) {
+        return Book.builder().isbn(isbn).title(title).genre(genre).user(owner)
+                .publishedDate(LocalDate.of(2020, 1, 1)).synopsis(synopsis).createdAt(createdAt).build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.dto.output.BookImportReportDTO;
+import com.example.bookapp.dto.output.BookImportRowResultDTO;
+import com.example.bookapp.dto.output.BookImportRowResultDTO.Status;
+import com.example.bookapp.entities.Book;
+import com.example.bookapp.entities.Genre;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.repositories.BookRepository;
+import com.example.bookapp.repositories.GenreRepository;
+import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import com.example.bookapp.services.impl.BookImportServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * A book inserted by someone else between the duplicate check and the insert of a chunk. Each chunk
+ * commits on its own, so this runs outside the test-managed transaction.
+ */
+@DataJpaTest(properties = "books.import.batch-size=3")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({BookImportServiceImpl.class, UserDetailsCache.class, UserCacheInvalidationListener.class})
+class BookImportChunkRetryTest {
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @SpyBean
+    private BookRepository bookRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().username("abel").email("abel@example.com").password("hashed").build());
+        Genre drama = genreRepository.save(Genre.builder().name("Drama").user(user).build());
+        bookRepository.save(Book.builder().isbn("9780000000009").title("Raced in").genre(drama)
+                .publishedDate(LocalDate.of(2020, 1, 1)).synopsis("Inserted concurrently").user(user).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        genreRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void import_whenAnIsbnIsInsertedConcurrently_shouldRetryTheChunkRowByRow() {
+        // Arrange: the duplicate check never sees the concurrent insert, only the unique index does
+        doReturn(Set.of()).when(bookRepository).findExistingIsbns(anyCollection());
+        String csv = "isbn,title,genre,publishedDate,synopsis\n"
+                + "9780000000041,First book,Drama,2020-01-01,A first synopsis\n"
+                + "9780000000009,Raced book,Drama,2020-01-02,Collides with the other insert\n"
+                + "9780000000042,Third book,Drama,2020-01-03,A third synopsis\n";
+
+        // Act
+        BookImportReportDTO report = bookImportService.importBooks(user.getId(),
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportService.Format.CSV);
+
+        // Assert
+        assertEquals(List.of(Status.CREATED, Status.DUPLICATE, Status.CREATED),
+                report.getRows().stream().map(BookImportRowResultDTO::getStatus).toList());
+        assertEquals(3, bookRepository.count());
+    }
+}
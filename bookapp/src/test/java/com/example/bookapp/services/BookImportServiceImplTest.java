@@ -0,0 +1,177 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.dto.output.BookImportReportDTO;
+import com.example.bookapp.dto.output.BookImportRowResultDTO;
+import com.example.bookapp.dto.output.BookImportRowResultDTO.Status;
+import com.example.bookapp.entities.Book;
+import com.example.bookapp.entities.Genre;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.exceptions.ResourceNotFoundException;
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import com.example.bookapp.services.impl.BookImportServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "books.import.batch-size=2")
+@ActiveProfiles("test")
+@ImportAutoConfiguration({ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({BookImportServiceImpl.class, UserDetailsCache.class, UserCacheInvalidationListener.class})
+class BookImportServiceImplTest {
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private Genre drama;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().username("abel").email("abel@example.com").password("hashed").build();
+        entityManager.persist(user);
+        drama = Genre.builder().name("Drama").user(user).build();
+        entityManager.persist(drama);
+        entityManager.persist(Book.builder().isbn("9780000000009").title("Existing").genre(drama)
+                .publishedDate(LocalDate.of(2020, 1, 1)).synopsis("Already stored").user(user).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void importCsv_shouldInsertValidRowsInBatchesAndReportTheRest() {
+        // Arrange
+        String csv = "isbn,title,genre,publishedDate,synopsis\n"
+                + "9780000000001,First book,drama,2020-01-01,\"A synopsis, with a comma\"\n"
+                + "9780000000002,Second book,Drama,2020-01-02,Another synopsis here\n"
+                + "9780000000003,Third book,Drama,2020-01-03,Yet another synopsis\n"
+                + "9780000000001,Again,Drama,2020-01-01,Repeated in the same file\n"
+                + "9780000000009,Stored,Drama,2020-01-01,Already in the database\n"
+                + "9780000000004,X,Drama,2020-01-01,Title is too short\n"
+                + "9780000000005,Unknown genre,Poetry,2020-01-01,Genre does not exist\n"
+                + "9780000000006,Bad date,Drama,01/01/2020,Date is not ISO\n"
+                + "9780000000007,Fourth book,Drama,2020-01-04,The last valid row\n";
+
+        // Act
+        BookImportReportDTO report = bookImportService.importBooks(user.getId(), stream(csv), BookImportService.Format.CSV);
+
+        // Assert
+        assertEquals(9, report.getTotalRows());
+        assertEquals(4, report.getCreated());
+        assertEquals(5, report.getRejected());
+        assertTrue(report.getRowsPerSecond() > 0);
+        assertEquals(List.of(Status.CREATED, Status.CREATED, Status.CREATED, Status.DUPLICATE, Status.DUPLICATE,
+                        Status.INVALID, Status.INVALID, Status.INVALID, Status.CREATED),
+                report.getRows().stream().map(BookImportRowResultDTO::getStatus).toList());
+        assertEquals(2, report.getRows().get(0).getLine());
+        assertTrue(report.getRows().get(5).getMessage().startsWith("title:"));
+
+        assertEquals(4, statistics.getEntityInsertCount());
+        // Only the user's genres are loaded, once for the whole file
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(5, count());
+    }
+
+    @Test
+    void importJsonLines_shouldResolveGenresByIdOrName() {
+        // Arrange
+        String jsonl = "{\"isbn\":\"9780000000011\",\"title\":\"By id\",\"genreId\":" + drama.getId()
+                + ",\"publishedDate\":\"2021-05-01\",\"synopsis\":\"Genre given by id\"}\n"
+                + "\n"
+                + "{\"isbn\":\"9780000000012\",\"title\":\"By name\",\"genre\":\"DRAMA\","
+                + "\"publishedDate\":\"2021-05-02\",\"synopsis\":\"Genre given by name\"}\n"
+                + "{not json}\n";
+
+        // Act
+        BookImportReportDTO report = bookImportService.importBooks(user.getId(), stream(jsonl), BookImportService.Format.JSON_LINES);
+
+        // Assert
+        assertEquals(3, report.getTotalRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(Status.INVALID, report.getRows().get(2).getStatus());
+        assertEquals(4, report.getRows().get(2).getLine());
+        assertEquals(3, count());
+    }
+
+    @Test
+    void importCsv_withUnterminatedQuote_shouldReportTheRowAndKeepTheOthers() {
+        // Arrange
+        String csv = "isbn,title,genre,publishedDate,synopsis\n"
+                + "9780000000021,First book,Drama,2020-01-01,A first synopsis\n"
+                + "9780000000022,Second book,Drama,2020-01-02,A second synopsis\n"
+                + "9780000000023,Third book,Drama,2020-01-03,A third synopsis\n"
+                + "9780000000024,Broken,Drama,2020-01-04,\"Never closed\n";
+
+        // Act
+        BookImportReportDTO report = bookImportService.importBooks(user.getId(), stream(csv), BookImportService.Format.CSV);
+
+        // Assert
+        assertEquals(4, report.getTotalRows());
+        assertEquals(3, report.getCreated());
+        BookImportRowResultDTO broken = report.getRows().get(3);
+        assertEquals(Status.INVALID, broken.getStatus());
+        assertEquals(5, broken.getLine());
+        assertTrue(broken.getMessage().startsWith("Unterminated quoted field"));
+        assertEquals(4, count());
+    }
+
+    @Test
+    void importJsonLines_withOverlongLine_shouldRejectOnlyThatLine() {
+        // Arrange
+        String jsonl = "{\"isbn\":\"9780000000031\",\"title\":\"" + "x".repeat(5000) + "\"}\n"
+                + "{\"isbn\":\"9780000000032\",\"title\":\"Short line\",\"genre\":\"Drama\","
+                + "\"publishedDate\":\"2021-05-02\",\"synopsis\":\"Fits within the limit\"}\n";
+
+        // Act
+        BookImportReportDTO report = bookImportService.importBooks(user.getId(), stream(jsonl), BookImportService.Format.JSON_LINES);
+
+        // Assert
+        assertEquals(2, report.getTotalRows());
+        assertEquals(1, report.getCreated());
+        assertEquals(Status.INVALID, report.getRows().get(0).getStatus());
+        assertEquals("Line longer than 4000 characters", report.getRows().get(0).getMessage());
+    }
+
+    @Test
+    void import_forUnknownUser_shouldFail() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> bookImportService.importBooks(999L, stream(""), BookImportService.Format.CSV));
+    }
+
+    private long count() {
+        return entityManager.createQuery("SELECT COUNT(b) FROM Book b", Long.class).getSingleResult();
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,21 +1,38 @@
 package com.example.bookapp.services;
 
+import com.example.bookapp.components.BookCountCache;
+import com.example.bookapp.components.KeysetCursor;
 import com.example.bookapp.components.Mapper;
+import com.example.bookapp.components.TitleAutocompleteIndex;
+import com.example.bookapp.dto.input.BookFilterDTO;
+import com.example.bookapp.dto.input.BookLookupDTO;
 import com.example.bookapp.dto.input.BookRegisterDTO;
+import com.example.bookapp.dto.output.BookCursorPageDTO;
+import com.example.bookapp.dto.output.BookLookupResultDTO;
 import com.example.bookapp.dto.output.BookResponseDTO;
 import com.example.bookapp.entities.Book;
 import com.example.bookapp.entities.Genre;
 import com.example.bookapp.entities.User;
 import com.example.bookapp.exceptions.AlreadyExistException;
+import com.example.bookapp.exceptions.ResourceNotFoundException;
 import com.example.bookapp.repositories.BookRepository;
 import com.example.bookapp.repositories.GenreRepository;
 import com.example.bookapp.repositories.UserRepository;
 import com.example.bookapp.services.impl.BookServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.SliceImpl;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +44,9 @@ class BookServiceImplTest {
     private UserRepository userRepository;
     private Mapper mapper;
     private ImageStorageService imageStorageService;
+    private BookCountCache bookCountCache;
+    private TitleAutocompleteIndex titleAutocompleteIndex;
+    private ApplicationEventPublisher eventPublisher;
 
     private BookServiceImpl bookService;
 
@@ -37,8 +57,12 @@ class BookServiceImplTest {
         userRepository = mock(UserRepository.class);
         mapper = mock(Mapper.class);
         imageStorageService = mock(ImageStorageService.class);
+        bookCountCache = mock(BookCountCache.class);
+        titleAutocompleteIndex = mock(TitleAutocompleteIndex.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
 
-        bookService = new BookServiceImpl(bookRepository, genreRepository, userRepository, mapper, imageStorageService);
+        bookService = new BookServiceImpl(bookRepository, genreRepository, userRepository, mapper, imageStorageService,
+                bookCountCache, titleAutocompleteIndex, eventPublisher);
     }
 
     @Test
@@ -76,19 +100,11 @@ class BookServiceImplTest {
         savedBook.setPublishedDate(book.getPublishedDate());
         savedBook.setSynopsis(book.getSynopsis());
 
-        BookResponseDTO responseDTO = new BookResponseDTO();
-        responseDTO.setIsbn(dto.getIsbn());
-        responseDTO.setTitle(dto.getTitle());
-        responseDTO.setGenre(genre.getName());
-        responseDTO.setPublishedDate(dto.getPublishedDate());
-        responseDTO.setSynopsis(dto.getSynopsis());
-
-        when(bookRepository.existsByIsbn(dto.getIsbn())).thenReturn(false);
-        when(genreRepository.findById(dto.getGenreId())).thenReturn(Optional.of(genre));
-        when(userRepository.findById(dto.getUserId())).thenReturn(Optional.of(user));
+        when(genreRepository.findNameByIdAndUserId(dto.getGenreId(), dto.getUserId())).thenReturn(Optional.of("Programming"));
+        when(genreRepository.getReferenceById(dto.getGenreId())).thenReturn(genre);
+        when(userRepository.getReferenceById(dto.getUserId())).thenReturn(user);
         when(mapper.toEntity(dto, Book.class)).thenReturn(book);
-        when(bookRepository.save(book)).thenReturn(savedBook);
-        when(mapper.toDto(savedBook, BookResponseDTO.class)).thenReturn(responseDTO);
+        when(bookRepository.saveAndFlush(book)).thenReturn(savedBook);
 
         // Act
         BookResponseDTO result = bookService.register(dto);
@@ -98,7 +114,10 @@ class BookServiceImplTest {
         assertEquals(dto.getIsbn(), result.getIsbn());
         assertEquals(dto.getTitle(), result.getTitle());
         assertEquals("Programming", result.getGenre());
-        verify(bookRepository).save(book);
+        verify(bookRepository).saveAndFlush(book);
+        verify(bookRepository, never()).existsByIsbn(any());
+        verify(genreRepository, never()).findById(any());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -106,11 +125,148 @@ class BookServiceImplTest {
         // Arrange
         BookRegisterDTO dto = new BookRegisterDTO();
         dto.setIsbn("1234567890");
+        dto.setGenreId(1L);
+        dto.setUserId(2L);
 
-        when(bookRepository.existsByIsbn(dto.getIsbn())).thenReturn(true);
+        Book book = new Book();
+        when(genreRepository.findNameByIdAndUserId(1L, 2L)).thenReturn(Optional.of("Programming"));
+        when(mapper.toEntity(dto, Book.class)).thenReturn(book);
+        when(bookRepository.saveAndFlush(book)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException("duplicate", "23505"),
+                        ConstraintViolationException.ConstraintKind.UNIQUE, "PK_BOOKS")));
 
         // Act & Assert
         assertThrows(AlreadyExistException.class, () -> bookService.register(dto));
-        verify(bookRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void findByCursor_ShouldReturnNextCursorFromLastRowAndSkipCount() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 0);
+        KeysetCursor cursor = new KeysetCursor(createdAt, "100");
+        List<BookResponseDTO> rows = List.of(
+                new BookResponseDTO("101", "A", "Drama", LocalDate.of(2020, 1, 1), "s", null, createdAt),
+                new BookResponseDTO("102", "B", "Drama", LocalDate.of(2020, 1, 1), "s", null, createdAt.plusSeconds(1)),
+                new BookResponseDTO("103", "C", "Drama", LocalDate.of(2020, 1, 1), "s", null, createdAt.plusSeconds(2)));
+        when(bookRepository.findKeysetPageAfter(eq(2L), eq(createdAt), eq("100"), any())).thenReturn(rows);
+
+        // Act
+        BookCursorPageDTO page = bookService.findByCursor(2L, cursor.encode(), 2, false, true);
+
+        // Assert
+        assertEquals(2, page.getContent().size());
+        assertEquals(new KeysetCursor(createdAt.plusSeconds(1), "102"), KeysetCursor.decode(page.getNextCursor()));
+        assertNull(page.getTotalElements());
+        verify(bookCountCache, never()).countForUser(any());
+    }
+
+    @Test
+    void findByCursor_ShouldRejectOversizedPages() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookService.findByCursor(2L, null, 1_000_000, false, true));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void findByCursor_ShouldRejectTamperedCursor() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookService.findByCursor(2L, "not-a-cursor", 5, false, true));
+    }
+
+    @Test
+    void findByIsbnsAndUserId_ShouldSplitFoundAndMissingInRequestOrder() {
+        // Arrange
+        BookResponseDTO second = new BookResponseDTO("2222222222", "Second", "Drama", null, null, null, null);
+        BookResponseDTO first = new BookResponseDTO("1111111111", "First", "Drama", null, null, null, null);
+        when(bookRepository.findResponsesByUserIdAndIsbnIn(2L, List.of("1111111111", "0000000000", "2222222222")))
+                .thenReturn(List.of(second, first));
+
+        // Act
+        BookLookupResultDTO result = bookService.findByIsbnsAndUserId(
+                List.of("1111111111", "0000000000", "2222222222", "1111111111"), 2L);
+
+        // Assert
+        assertEquals(List.of(first, second), result.getFound());
+        assertEquals(List.of("0000000000"), result.getMissing());
+        verify(bookRepository, times(1)).findResponsesByUserIdAndIsbnIn(anyLong(), anyCollection());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findByIsbnsAndUserId_ShouldQueryInChunksOfTheRequestLimit() {
+        // Arrange: one ISBN more than a request may carry
+        List<String> isbns = IntStream.rangeClosed(1, BookLookupDTO.MAX_ISBNS + 1)
+                .mapToObj(i -> String.format("%010d", i))
+                .toList();
+        BookResponseDTO last = new BookResponseDTO(isbns.get(BookLookupDTO.MAX_ISBNS), "Last", "Drama", null, null, null, null);
+        when(bookRepository.findResponsesByUserIdAndIsbnIn(2L, isbns.subList(0, BookLookupDTO.MAX_ISBNS))).thenReturn(List.of());
+        when(bookRepository.findResponsesByUserIdAndIsbnIn(2L, isbns.subList(BookLookupDTO.MAX_ISBNS, isbns.size())))
+                .thenReturn(List.of(last));
+
+        // Act
+        BookLookupResultDTO result = bookService.findByIsbnsAndUserId(isbns, 2L);
+
+        // Assert
+        assertEquals(List.of(last), result.getFound());
+        assertEquals(BookLookupDTO.MAX_ISBNS, result.getMissing().size());
+        verify(bookRepository, times(2)).findResponsesByUserIdAndIsbnIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void findByIsbnsAndUserId_ShouldFailForUnknownUserOnlyWhenNothingIsFound() {
+        // Arrange
+        when(bookRepository.findResponsesByUserIdAndIsbnIn(eq(99L), anyCollection())).thenReturn(List.of());
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> bookService.findByIsbnsAndUserId(List.of("1111111111"), 99L));
+    }
+
+    @Test
+    void findByFilter_ShouldRejectInvertedDateRangeWithoutQuerying() {
+        // Arrange
+        BookFilterDTO filter = new BookFilterDTO();
+        filter.setUserId(2L);
+        filter.setPublishedFrom(LocalDate.of(2021, 1, 1));
+        filter.setPublishedTo(LocalDate.of(2020, 1, 1));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookService.findByFilter(filter));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void findByGenreIdAndUserId_ShouldRunOnlyThePageQueryWhenRowsComeBack() {
+        // Arrange
+        BookResponseDTO row = new BookResponseDTO("1111111111", "First", "Drama", null, null, null, null);
+        when(bookRepository.findListingByGenreIdAndUserId(eq(10L), eq(2L), eq(true), any()))
+                .thenReturn(new SliceImpl<>(List.of(row)));
+        when(bookCountCache.countForGenre(2L, 10L)).thenReturn(1L);
+
+        // Act
+        Page<BookResponseDTO> page = bookService.findByGenreIdAndUserId(10L, 2L, 0, 5, true);
+
+        // Assert
+        assertEquals(List.of(row), page.getContent());
+        assertEquals(1, page.getTotalElements());
+        verifyNoInteractions(userRepository, genreRepository);
+    }
+
+    @Test
+    void findByGenreIdAndUserId_ShouldProbeGenreOnlyWhenPageIsEmpty() {
+        // Arrange
+        when(bookRepository.findListingByGenreIdAndUserId(anyLong(), anyLong(), anyBoolean(), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+        when(genreRepository.existsByIdAndUserId(10L, 2L)).thenReturn(true);
+        when(genreRepository.existsByIdAndUserId(99L, 2L)).thenReturn(false);
+
+        // Act
+        Page<BookResponseDTO> empty = bookService.findByGenreIdAndUserId(10L, 2L, 0, 5, true);
+
+        // Assert
+        assertEquals(0, empty.getTotalElements());
+        assertThrows(ResourceNotFoundException.class, () -> bookService.findByGenreIdAndUserId(99L, 2L, 0, 5, true));
+        verifyNoInteractions(bookCountCache);
     }
 }
@@ -0,0 +1,154 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.components.BookCountCache;
+import com.example.bookapp.components.Mapper;
+import com.example.bookapp.components.TitleAutocompleteIndex;
+import com.example.bookapp.dto.input.BookRegisterDTO;
+import com.example.bookapp.dto.input.BookUpdateDTO;
+import com.example.bookapp.dto.output.BookResponseDTO;
+import com.example.bookapp.entities.Book;
+import com.example.bookapp.entities.Genre;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.exceptions.ResourceNotFoundException;
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import com.example.bookapp.services.impl.BookServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements of each book write against H2, to keep the write paths from drifting back
+ * to loading users and genres they only need as foreign keys.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BookServiceImpl.class, Mapper.class, BookCountCache.class, TitleAutocompleteIndex.class,
+        UserDetailsCache.class, UserCacheInvalidationListener.class})
+class BookWriteStatementCountTest {
+
+    @MockBean
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private Genre drama;
+    private Genre poetry;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().username("abel").email("abel@example.com").password("hashed").build();
+        entityManager.persist(user);
+        drama = Genre.builder().name("Drama").user(user).build();
+        poetry = Genre.builder().name("Poetry").user(user).build();
+        entityManager.persist(drama);
+        entityManager.persist(poetry);
+        entityManager.persist(Book.builder().isbn("9780000000001").title("Existing").genre(drama)
+                .publishedDate(LocalDate.of(2020, 1, 1)).synopsis("Synopsis text").user(user).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void register_shouldCheckGenreOwnershipAndInsert() {
+        // Arrange
+        BookRegisterDTO dto = new BookRegisterDTO();
+        dto.setIsbn("9780000000002");
+        dto.setTitle("New book");
+        dto.setGenreId(drama.getId());
+        dto.setUserId(user.getId());
+        dto.setPublishedDate(LocalDate.of(2021, 1, 1));
+        dto.setSynopsis("A brand new synopsis");
+
+        // Act
+        BookResponseDTO response = bookService.register(dto);
+
+        // Assert
+        assertEquals("Drama", response.getGenre());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void register_withGenreOfAnotherUser_shouldBeRejected() {
+        // Arrange
+        User other = User.builder().username("other").email("other@example.com").password("hashed").build();
+        entityManager.persist(other);
+
+        BookRegisterDTO dto = new BookRegisterDTO();
+        dto.setIsbn("9780000000003");
+        dto.setGenreId(drama.getId());
+        dto.setUserId(other.getId());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> bookService.register(dto));
+    }
+
+    @Test
+    void update_withoutGenreChange_shouldSelectOnceAndUpdate() {
+        // Arrange
+        BookUpdateDTO dto = new BookUpdateDTO();
+        dto.setIsbn("9780000000001");
+        dto.setUserId(user.getId());
+        dto.setTitle("Renamed");
+
+        // Act
+        BookResponseDTO response = bookService.update(dto);
+        entityManager.flush();
+
+        // Assert
+        assertEquals("Drama", response.getGenre());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void update_withGenreChange_shouldAddOneOwnershipQuery() {
+        // Arrange
+        BookUpdateDTO dto = new BookUpdateDTO();
+        dto.setIsbn("9780000000001");
+        dto.setUserId(user.getId());
+        dto.setGenreId(poetry.getId());
+
+        // Act
+        BookResponseDTO response = bookService.update(dto);
+        entityManager.flush();
+
+        // Assert
+        assertEquals("Poetry", response.getGenre());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteByIsbn_shouldSelectOnceAndDelete() {
+        // Act
+        bookService.deleteByIsbn("9780000000001", user.getId());
+        entityManager.flush();
+
+        // Assert
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertNull(entityManager.find(Book.class, "9780000000001"));
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.bookapp.services;
 
+import com.example.bookapp.components.GenreCatalogCache;
 import com.example.bookapp.components.Mapper;
 import com.example.bookapp.dto.input.GenreRegisterDTO;
 import com.example.bookapp.dto.output.GenreResponseDTO;
+import com.example.bookapp.dto.output.GenreStatsDTO;
 import com.example.bookapp.entities.Genre;
 import com.example.bookapp.entities.User;
+import com.example.bookapp.events.GenreChangedEvent;
 import com.example.bookapp.exceptions.AlreadyExistException;
 import com.example.bookapp.exceptions.ResourceNotFoundException;
 import com.example.bookapp.repositories.GenreRepository;
+import com.example.bookapp.repositories.GenreStatsRepository;
 import com.example.bookapp.repositories.UserRepository;
 import com.example.bookapp.services.impl.GenreServiceImpl;
 
@@ -18,8 +22,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,12 +39,21 @@ class GenreServiceImplTest {
     @Mock
     private GenreRepository genreRepository;
 
+    @Mock
+    private GenreStatsRepository genreStatsRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private Mapper mapper;
 
+    @Mock
+    private GenreCatalogCache genreCatalogCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private GenreServiceImpl genreService;
 
@@ -71,7 +89,7 @@ class GenreServiceImplTest {
     void register_shouldCreateGenreSuccessfully() {
         // Arrange
         when(userRepository.findById(dto.getUserId())).thenReturn(Optional.of(user));
-        when(genreRepository.existsByNameIgnoreCaseAndUserId(dto.getName(), dto.getUserId())).thenReturn(false);
+        when(genreCatalogCache.get(dto.getUserId())).thenReturn(catalogOf("Drama"));
         when(genreRepository.save(any(Genre.class))).thenReturn(savedGenre);
         when(mapper.toDto(savedGenre, GenreResponseDTO.class)).thenReturn(expectedResponse);
 
@@ -84,9 +102,10 @@ class GenreServiceImplTest {
         assertEquals(expectedResponse.getName(), result.getName());
 
         verify(userRepository).findById(dto.getUserId());
-        verify(genreRepository).existsByNameIgnoreCaseAndUserId(dto.getName(), dto.getUserId());
         verify(genreRepository).save(any(Genre.class));
         verify(mapper).toDto(savedGenre, GenreResponseDTO.class);
+        verify(genreStatsRepository).insertEmpty(100L, 1L);
+        verify(eventPublisher).publishEvent(new GenreChangedEvent(1L, 100L));
     }
 
     @Test
@@ -108,6 +127,7 @@ class GenreServiceImplTest {
     void register_shouldThrowIfGenreAlreadyExists() {
         // Arrange
         when(userRepository.findById(dto.getUserId())).thenReturn(Optional.of(user));
+        when(genreCatalogCache.get(dto.getUserId())).thenReturn(catalogOf("FANTASÍA"));
         when(genreRepository.existsByNameIgnoreCaseAndUserId(dto.getName(), dto.getUserId())).thenReturn(true);
 
         // Act & Assert
@@ -118,6 +138,74 @@ class GenreServiceImplTest {
         assertEquals("A genre with this name already exists for this user", ex.getMessage());
         verify(userRepository).findById(dto.getUserId());
         verify(genreRepository).existsByNameIgnoreCaseAndUserId(dto.getName(), dto.getUserId());
-        verifyNoMoreInteractions(genreRepository, mapper);
+        verifyNoMoreInteractions(genreRepository, mapper, eventPublisher);
+    }
+
+    @Test
+    void register_whenOnlyTheCatalogMatches_shouldLetTheDatabaseDecide() {
+        // Arrange: the catalog upper-cases "Straße" to "STRASSE", the database collation does not
+        dto.setName("Straße");
+        when(userRepository.findById(dto.getUserId())).thenReturn(Optional.of(user));
+        when(genreCatalogCache.get(dto.getUserId())).thenReturn(catalogOf("STRASSE"));
+        when(genreRepository.existsByNameIgnoreCaseAndUserId("Straße", dto.getUserId())).thenReturn(false);
+        when(genreRepository.save(any(Genre.class))).thenReturn(savedGenre);
+        when(mapper.toDto(savedGenre, GenreResponseDTO.class)).thenReturn(expectedResponse);
+
+        // Act
+        genreService.register(dto);
+
+        // Assert
+        verify(genreRepository).save(any(Genre.class));
+    }
+
+    @Test
+    void register_whenTheUniqueConstraintRejects_shouldThrowAlreadyExist() {
+        // Arrange: added on another node, so not in this node's catalog yet
+        when(userRepository.findById(dto.getUserId())).thenReturn(Optional.of(user));
+        when(genreCatalogCache.get(dto.getUserId())).thenReturn(catalogOf());
+        when(genreRepository.save(any(Genre.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, ConstraintViolationException.ConstraintKind.UNIQUE, "uk_genres_name_user")));
+
+        // Act & Assert
+        assertThrows(AlreadyExistException.class, () -> genreService.register(dto));
+        verifyNoInteractions(genreStatsRepository, eventPublisher);
+    }
+
+    @Test
+    void findStatsByUserId_shouldReturnSummariesOfExistingUser() {
+        // Arrange
+        List<GenreStatsDTO> summaries = List.of(new GenreStatsDTO(100L, "Fantasía", 3L, null));
+        when(genreStatsRepository.findSummariesByUserId(1L)).thenReturn(summaries);
+
+        // Act
+        List<GenreStatsDTO> result = genreService.findStatsByUserId(1L);
+
+        // Assert
+        assertEquals(summaries, result);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findStatsByUserId_forUserWithoutGenres_shouldReturnEmpty() {
+        // Arrange
+        when(genreStatsRepository.findSummariesByUserId(1L)).thenReturn(List.of());
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(genreService.findStatsByUserId(1L).isEmpty());
+    }
+
+    @Test
+    void findStatsByUserId_shouldThrowIfUserNotFound() {
+        // Arrange
+        when(genreStatsRepository.findSummariesByUserId(1L)).thenReturn(List.of());
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> genreService.findStatsByUserId(1L));
+    }
+
+    private static GenreCatalogCache.Catalog catalogOf(String... upperCaseNames) {
+        return new GenreCatalogCache.Catalog(List.of(), "\"etag\"", Set.of(upperCaseNames));
     }
 }
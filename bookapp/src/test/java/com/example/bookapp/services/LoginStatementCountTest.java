@@ -0,0 +1,95 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.dto.input.LoginRequestDTO;
+import com.example.bookapp.dto.output.LoginResponseDTO;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import com.example.bookapp.security.UserDetailsServiceImpl;
+import com.example.bookapp.security.jwt.JwtService;
+import com.example.bookapp.security.jwt.TokenEpochRegistry;
+import com.example.bookapp.security.jwt.TokenRevocationList;
+import com.example.bookapp.services.impl.AuthServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Counts the SQL statements of a login against H2, through the real authentication provider, to keep
+ * login from drifting back to loading the user more than once.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({UserDetailsCache.class, UserCacheInvalidationListener.class})
+class LoginStatementCountTest {
+
+    // Lowest cost BCrypt accepts, and the same as the stored hash so nothing is rehashed
+    private static final BCryptPasswordEncoder PASSWORD_ENCODER = new BCryptPasswordEncoder(4);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(User.builder().username("abel").email("abel@example.com")
+                .password(PASSWORD_ENCODER.encode("abel123")).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Without the user cache, so every login reaches the database
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new UserDetailsServiceImpl(userRepository, new UserDetailsCache(false, 1, Duration.ZERO)));
+        provider.setPasswordEncoder(PASSWORD_ENCODER);
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt.token.aqui");
+        authService = new AuthServiceImpl(new ProviderManager(provider), jwtService, mock(RefreshTokenService.class),
+                mock(TokenRevocationList.class), mock(TokenEpochRegistry.class), userRepository);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void login_shouldRunOneStatementPerLogin() {
+        // Arrange
+        LoginRequestDTO request = new LoginRequestDTO();
+        request.setEmail("abel@example.com");
+        request.setPassword("abel123");
+
+        // Act
+        int logins = 10;
+        for (int i = 0; i < logins; i++) {
+            LoginResponseDTO response = authService.login(request);
+            assertEquals("jwt.token.aqui", response.getToken());
+            entityManager.clear();
+        }
+
+        // Assert
+        assertEquals(logins, statistics.getPrepareStatementCount());
+    }
+}
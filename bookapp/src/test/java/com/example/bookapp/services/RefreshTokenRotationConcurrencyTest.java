@@ -0,0 +1,112 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.entities.RefreshToken;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.exceptions.InvalidTokenException;
+import com.example.bookapp.repositories.RefreshTokenRepository;
+import com.example.bookapp.repositories.UserRepository;
+import com.example.bookapp.security.UserCacheInvalidationListener;
+import com.example.bookapp.security.UserDetailsCache;
+import com.example.bookapp.services.impl.RefreshTokenServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two rotations of the same refresh token that both read it before either writes. Each rotation commits
+ * on its own, so this runs outside the test-managed transaction.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RefreshTokenServiceImpl.class, UserDetailsCache.class, UserCacheInvalidationListener.class})
+class RefreshTokenRotationConcurrencyTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @SpyBean
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder().username("abel").email("abel@example.com").password("hashed").build());
+        token = refreshTokenService.issue(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rotate_concurrently_shouldLetOnlyOneWinAndRevokeTheFamily() throws Exception {
+        // Arrange: neither rotation writes before both have read the unused token
+        CyclicBarrier bothRead = new CyclicBarrier(2);
+        // Spring Data repositories are JDK proxies, spied through a default answer that delegates to them
+        Answer<?> delegate = mockingDetails(refreshTokenRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Object found = delegate.answer(invocation);
+            bothRead.await(5, TimeUnit.SECONDS);
+            return found;
+        }).when(refreshTokenRepository).findByTokenHashWithUser(anyString());
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<RefreshTokenService.Rotation>> rotations = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                rotations.add(executor.submit(() -> refreshTokenService.rotate(token)));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        // Assert
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<RefreshTokenService.Rotation> rotation : rotations) {
+            try {
+                rotation.get();
+                succeeded++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(InvalidTokenException.class, e.getCause());
+                rejected++;
+            }
+        }
+        assertEquals(1, succeeded);
+        assertEquals(1, rejected);
+
+        // The loser revoked the family, including the token the winner just issued
+        List<RefreshToken> family = refreshTokenRepository.findAll();
+        assertEquals(2, family.size());
+        assertTrue(family.stream().allMatch(RefreshToken::isRevoked));
+    }
+}
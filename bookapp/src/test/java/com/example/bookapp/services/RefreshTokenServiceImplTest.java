@@ -0,0 +1,120 @@
+package com.example.bookapp.services;
+
+import com.example.bookapp.entities.RefreshToken;
+import com.example.bookapp.entities.User;
+import com.example.bookapp.exceptions.InvalidTokenException;
+import com.example.bookapp.repositories.RefreshTokenRepository;
+import com.example.bookapp.services.impl.RefreshTokenServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceImplTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private RefreshTokenServiceImpl refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, Duration.ofDays(7));
+        user = User.builder().id(1L).email("abel@example.com").username("abel").build();
+    }
+
+    @Test
+    void issue_shouldStoreOnlyTheHashOfTheToken() {
+        // Act
+        String token = refreshTokenService.issue(user);
+
+        // Assert
+        RefreshToken stored = captureSaved();
+        assertNotNull(token);
+        assertNotEquals(token, stored.getTokenHash());
+        assertEquals(43, stored.getTokenHash().length());
+        assertSame(user, stored.getUser());
+        assertNotNull(stored.getFamilyId());
+    }
+
+    @Test
+    void rotate_shouldMarkTokenUsedAndIssueOneInTheSameFamily() {
+        // Arrange
+        String token = refreshTokenService.issue(user);
+        RefreshToken current = captureSaved();
+        current.setId(10L);
+        when(refreshTokenRepository.findByTokenHashWithUser(current.getTokenHash())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.claim(eq(10L), any())).thenReturn(1);
+        clearInvocations(refreshTokenRepository);
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(token);
+
+        // Assert
+        RefreshToken next = captureSaved();
+        assertSame(user, rotation.user());
+        assertNotEquals(token, rotation.refreshToken());
+        verify(refreshTokenRepository).claim(eq(10L), any());
+        assertEquals(current.getFamilyId(), next.getFamilyId());
+    }
+
+    @Test
+    void rotate_shouldRevokeFamilyWhenAConcurrentRotationClaimedTheTokenFirst() {
+        // Arrange: the row was unused when read, but the conditional update finds it taken
+        UUID familyId = UUID.randomUUID();
+        RefreshToken current = RefreshToken.builder()
+                .id(10L)
+                .tokenHash("hash")
+                .user(user)
+                .familyId(familyId)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.claim(eq(10L), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("raced"));
+        verify(refreshTokenRepository).revokeFamily(familyId);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_shouldRevokeFamilyWhenTokenIsReused() {
+        // Arrange
+        UUID familyId = UUID.randomUUID();
+        RefreshToken used = RefreshToken.builder()
+                .tokenHash("hash")
+                .user(user)
+                .familyId(familyId)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .usedAt(Instant.now())
+                .build();
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(used));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("stolen"));
+        verify(refreshTokenRepository).revokeFamily(familyId);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_shouldRejectUnknownToken() {
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.empty());
+
+        InvalidTokenException ex = assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate("nope"));
+        assertEquals("Invalid refresh token", ex.getMessage());
+    }
+
+    private RefreshToken captureSaved() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        return captor.getValue();
+    }
+}